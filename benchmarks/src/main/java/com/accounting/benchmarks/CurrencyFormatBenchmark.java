@@ -0,0 +1,72 @@
+package com.accounting.benchmarks;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.util.CurrencyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Formatting amounts for display, once per table cell and summary label. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CurrencyFormatBenchmark {
+    private static final int AMOUNT_COUNT = 1024;
+
+    @Param({"Kz", "USD"})
+    public String currency;
+
+    private DatabaseManager dbManager;
+    private CurrencyManager currencyManager;
+    private final double[] amounts = new double[AMOUNT_COUNT];
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        dbManager = Ledgers.open(0);
+        currencyManager = CurrencyManager.getInstance();
+        // A whole-number rate keeps whole amounts whole after conversion
+        currencyManager.updateSettings(currency, 2).join();
+
+        // A mix of whole and fractional amounts, so formatAmountClean takes both branches in either currency
+        Random random = new Random(42);
+        for (int i = 0; i < AMOUNT_COUNT; i++) {
+            long cents = random.nextInt(10_000_000);
+            amounts[i] = (i % 4 == 0 ? cents / 100 * 100 : cents) / 100.0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dbManager.closeConnection();
+    }
+
+    private double nextAmount() {
+        return amounts[next++ & (AMOUNT_COUNT - 1)];
+    }
+
+    @Benchmark
+    public String formatAmount() {
+        return currencyManager.formatAmount(nextAmount());
+    }
+
+    @Benchmark
+    public String formatAmountClean() {
+        return currencyManager.formatAmountClean(nextAmount());
+    }
+}
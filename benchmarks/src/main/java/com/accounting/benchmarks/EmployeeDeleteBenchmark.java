@@ -0,0 +1,81 @@
+package com.accounting.benchmarks;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.Transaction;
+import com.accounting.util.Timestamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deleting an employee together with all of their transactions (and the daily_totals rows the
+ * triggers maintain). A fresh employee with {@code employeeRows} transactions is created, untimed,
+ * before every delete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+public class EmployeeDeleteBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public long rows;
+
+    /** Transactions owned by the deleted employee, spread over the three tables. */
+    @Param({"1000"})
+    public int employeeRows;
+
+    private DatabaseManager dbManager;
+    private int employeeId;
+    private int created;
+
+    @Setup
+    public void setUp() throws Exception {
+        dbManager = Ledgers.open(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dbManager.closeConnection();
+    }
+
+    @Setup(Level.Invocation)
+    public void createEmployee() {
+        employeeId = dbManager.getOrCreateEmployees(List.of("حذف " + (++created))).values().iterator().next();
+
+        String[] types = {"sales", "expenses", "profits"};
+        Map<String, List<Transaction>> byType = new HashMap<>();
+        long occurredAt = Timestamps.startOfDay(Ledgers.LAST_DAY.minusDays(Ledgers.DAYS - 1));
+        for (int i = 0; i < employeeRows; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setEmployeeId(employeeId);
+            transaction.setAmountCents(1_000 + i);
+            transaction.setOccurredAt(occurredAt + i * 3_600L);
+            byType.computeIfAbsent(types[i % types.length], type -> new ArrayList<>()).add(transaction);
+        }
+        dbManager.saveTransactions(byType);
+    }
+
+    @Benchmark
+    public boolean deleteEmployee() {
+        return dbManager.deleteEmployee(employeeId);
+    }
+}
@@ -0,0 +1,82 @@
+package com.accounting.benchmarks;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.tools.LedgerGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Seeded ledger databases for the benchmarks.
+ *
+ * The app opens one database per JVM, and JMH runs every parameter combination in a fresh fork, so
+ * each fork calls {@link #open} once from its trial setup. A ledger of a given size is seeded the
+ * first time it is needed and kept as a template; later forks get a fresh copy of it, so benchmarks
+ * that write never see each other's rows.
+ */
+final class Ledgers {
+    /** Last day of every seeded ledger; rows are spread over the {@value #DAYS} days before it. */
+    static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+    static final int DAYS = 3 * 365;
+    static final int EMPLOYEES = 50;
+
+    private static final Path TEMPLATES = Paths.get(System.getProperty("accounting.benchmarks.ledgers",
+            "target/ledgers"));
+    private static final long SEED = 42;
+
+    private Ledgers() {}
+
+    /** Points the app at a fresh copy of a ledger with {@code rows} transactions and opens it. */
+    static DatabaseManager open(long rows) throws IOException, SQLException {
+        Files.createDirectories(TEMPLATES);
+        Path template = TEMPLATES.resolve("ledger-" + rows + ".db");
+        Path working = Files.createTempFile("accounting-bench-", ".db");
+        Files.delete(working);
+        // The WAL and shared-memory files outlive the connection unless they are removed too
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            new File(working + suffix).deleteOnExit();
+        }
+
+        boolean seeded = Files.exists(template);
+        if (seeded) {
+            Files.copy(template, working, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        System.setProperty("accounting.db", working.toString());
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        dbManager.initializeDatabase();
+
+        if (!seeded) {
+            seed(dbManager, rows);
+            saveTemplate(working, template);
+        }
+        return dbManager;
+    }
+
+    private static void seed(DatabaseManager dbManager, long rows) {
+        LedgerGenerator generator = new LedgerGenerator();
+        generator.setSeed(SEED);
+        generator.setEmployees(EMPLOYEES);
+        generator.setRows(rows);
+        generator.setLastDay(LAST_DAY);
+        generator.setDays(DAYS);
+        generator.generate(dbManager);
+    }
+
+    // VACUUM INTO writes a compact, self-contained copy while the app keeps the file open
+    private static void saveTemplate(Path working, Path template) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + working);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("VACUUM INTO '" + template.toAbsolutePath().toString().replace("'", "''") + "'");
+        }
+    }
+}
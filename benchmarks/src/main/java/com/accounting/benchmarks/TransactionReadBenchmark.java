@@ -0,0 +1,56 @@
+package com.accounting.benchmarks;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.TransactionView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Loading every sales row of a date range into memory, as the view-data page did before paging. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TransactionReadBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public long rows;
+
+    /** Length of the range, ending on the ledger's last day. */
+    @Param({"30", "365"})
+    public int days;
+
+    private DatabaseManager dbManager;
+    private LocalDate fromDate;
+
+    @Setup
+    public void setUp() throws Exception {
+        dbManager = Ledgers.open(rows);
+        fromDate = Ledgers.LAST_DAY.minusDays(days - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dbManager.closeConnection();
+    }
+
+    @Benchmark
+    public List<TransactionView> getTransactionViews() {
+        return dbManager.getTransactionViews("sales", fromDate, Ledgers.LAST_DAY);
+    }
+}
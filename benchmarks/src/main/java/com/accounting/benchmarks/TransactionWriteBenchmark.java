@@ -0,0 +1,80 @@
+package com.accounting.benchmarks;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.Transaction;
+import com.accounting.util.Timestamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting transactions one at a time (through the group-committing writer queue, waiting for each
+ * commit like the data-entry page does) and as one batched transaction, as the CSV import does.
+ * Both report the time per inserted row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TransactionWriteBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"10000", "1000000", "10000000"})
+    public long rows;
+
+    private DatabaseManager dbManager;
+    private int employeeId;
+    private long occurredAt;
+
+    @Setup
+    public void setUp() throws Exception {
+        dbManager = Ledgers.open(rows);
+        employeeId = dbManager.getEmployeeNames().keySet().iterator().next();
+        occurredAt = Timestamps.startOfDay(Ledgers.LAST_DAY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dbManager.closeConnection();
+    }
+
+    private Transaction newTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setEmployeeId(employeeId);
+        transaction.setAmountCents(12_345);
+        transaction.setOccurredAt(occurredAt++);
+        return transaction;
+    }
+
+    @Benchmark
+    public boolean saveTransaction() {
+        return dbManager.saveTransaction("sales", newTransaction());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int saveTransactionsBatch() {
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(newTransaction());
+        }
+        return dbManager.saveTransactions(Map.of("sales", batch));
+    }
+}
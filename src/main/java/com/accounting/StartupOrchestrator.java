@@ -0,0 +1,89 @@
+package com.accounting;
+
+import com.accounting.controller.MainController;
+import com.accounting.database.DatabaseManager;
+import com.accounting.database.DatabaseService;
+import com.accounting.util.AlertUtil;
+import com.accounting.util.CurrencyManager;
+import com.accounting.util.Log;
+import com.accounting.util.MetricsRegistry;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Brings the application up in stages so the window appears as early as possible.
+ *
+ * <ol>
+ *   <li>Background: open the database, run migrations, load the employee and settings caches.</li>
+ *   <li>FX thread, at the same time: parse the shell FXML and CSS and show the window with a
+ *       loading placeholder.</li>
+ *   <li>Once the database is ready: show the first page, then build the remaining pages.</li>
+ * </ol>
+ */
+class StartupOrchestrator {
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    private final Stage primaryStage;
+
+    StartupOrchestrator(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+    }
+
+    void start() throws IOException {
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> database = CompletableFuture.runAsync(this::openDatabase, runnable -> {
+            Thread thread = new Thread(runnable, "startup-db");
+            thread.setDaemon(true);
+            thread.start();
+        });
+
+        MainController mainController = showShell();
+
+        database.whenCompleteAsync((ready, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                AlertUtil.showError("تعذر فتح قاعدة البيانات");
+                return;
+            }
+            mainController.onDatabaseReady();
+            metrics.timer("startup.firstPage").recordSince(start);
+            Log.debug("[startup] First page ready");
+
+            // Deferred: build the other pages after the first one is on screen
+            mainController.preloadPages();
+        }, Platform::runLater);
+    }
+
+    private void openDatabase() {
+        long start = System.nanoTime();
+        DatabaseManager.getInstance().initializeDatabase();
+        CurrencyManager.getInstance();
+        DatabaseService.getInstance();
+        metrics.timer("startup.database").recordSince(start);
+    }
+
+    private MainController showShell() throws IOException {
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
+        Parent root = loader.load();
+        Scene scene = new Scene(root, 1200, 800);
+        scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
+
+        primaryStage.setTitle("نظام المحاسبة - Accounting System");
+        primaryStage.setScene(scene);
+        primaryStage.setMinWidth(1000);
+        primaryStage.setMinHeight(700);
+        primaryStage.setMaximized(true);
+        primaryStage.show();
+        metrics.timer("startup.shell").recordSince(start);
+
+        return loader.getController();
+    }
+}
@@ -0,0 +1,13 @@
+package com.accounting.controller;
+
+/**
+ * Implemented by page controllers whose page is kept alive by {@link ViewRegistry}.
+ *
+ * A page is parsed and initialized once; when the user navigates back to it, {@link #onActivated()}
+ * is called instead, so the page can bring its data up to date without being rebuilt.
+ */
+interface ActivatablePage {
+
+    /** Called on the FX thread each time an already-loaded page is shown again. */
+    void onActivated();
+}
@@ -1,23 +1,32 @@
 package com.accounting.controller;
 
-import com.accounting.database.DatabaseManager;
+import com.accounting.database.DatabaseService;
 import com.accounting.model.Employee;
 import com.accounting.model.Transaction;
 import com.accounting.util.AlertUtil;
-import javafx.collections.FXCollections;
+import com.accounting.util.Timestamps;
+import com.accounting.util.TransactionImportTask;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ResourceBundle;
 
-public class DataEntryController implements Initializable {
+public class DataEntryController implements Initializable, ActivatablePage {
     
     @FXML private TabPane tabPane;
     
+    // Bulk import
+    @FXML private Button importBtn;
+    @FXML private HBox importBar;
+    @FXML private ProgressBar importProgressBar;
+    
     // Sales Tab
     @FXML private ComboBox<Employee> salesEmployeeCombo;
     @FXML private TextField salesAmountField;
@@ -42,11 +51,12 @@ public class DataEntryController implements Initializable {
     @FXML private TextArea profitsNotesArea;
     @FXML private Button saveProfitsBtn;
     
-    private DatabaseManager dbManager;
+    private DatabaseService dbService;
+    private TransactionImportTask importTask;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        dbManager = DatabaseManager.getInstance();
+        dbService = DatabaseService.getInstance();
         setupComponents();
         loadEmployees();
     }
@@ -68,6 +78,22 @@ public class DataEntryController implements Initializable {
         addNumericValidation(profitsAmountField);
     }
     
+    @Override
+    public void onActivated() {
+        // Forms the user has not started keep tracking the current date and time
+        String currentTime = LocalTime.now().toString().substring(0, 5);
+        resetIfUntouched(salesAmountField, salesDatePicker, salesTimeField, currentTime);
+        resetIfUntouched(expensesAmountField, expensesDatePicker, expensesTimeField, currentTime);
+        resetIfUntouched(profitsAmountField, profitsDatePicker, profitsTimeField, currentTime);
+    }
+    
+    private void resetIfUntouched(TextField amountField, DatePicker datePicker, TextField timeField, String currentTime) {
+        if (amountField.getText().isEmpty()) {
+            datePicker.setValue(LocalDate.now());
+            timeField.setText(currentTime);
+        }
+    }
+    
     private void addNumericValidation(TextField field) {
         field.textProperty().addListener((observable, oldValue, newValue) -> {
             if (!newValue.matches("\\d*\\.?\\d*")) {
@@ -77,7 +103,8 @@ public class DataEntryController implements Initializable {
     }
     
     private void loadEmployees() {
-        var employees = FXCollections.observableArrayList(dbManager.getAllEmployees());
+        // The shared directory list follows employee changes made on other pages
+        var employees = dbService.getEmployeeDirectory().getEmployees();
         salesEmployeeCombo.setItems(employees);
         expensesEmployeeCombo.setItems(employees);
         profitsEmployeeCombo.setItems(employees);
@@ -86,24 +113,24 @@ public class DataEntryController implements Initializable {
     @FXML
     private void saveSales() {
         saveTransaction("sales", salesEmployeeCombo, salesAmountField, 
-                       salesDatePicker, salesTimeField, salesNotesArea);
+                       salesDatePicker, salesTimeField, salesNotesArea, saveSalesBtn);
     }
     
     @FXML
     private void saveExpenses() {
         saveTransaction("expenses", expensesEmployeeCombo, expensesAmountField, 
-                       expensesDatePicker, expensesTimeField, expensesNotesArea);
+                       expensesDatePicker, expensesTimeField, expensesNotesArea, saveExpensesBtn);
     }
     
     @FXML
     private void saveProfits() {
         saveTransaction("profits", profitsEmployeeCombo, profitsAmountField, 
-                       profitsDatePicker, profitsTimeField, profitsNotesArea);
+                       profitsDatePicker, profitsTimeField, profitsNotesArea, saveProfitsBtn);
     }
     
     private void saveTransaction(String type, ComboBox<Employee> employeeCombo, 
                                TextField amountField, DatePicker datePicker, 
-                               TextField timeField, TextArea notesArea) {
+                               TextField timeField, TextArea notesArea, Button saveBtn) {
         
         if (!validateInput(employeeCombo, amountField, datePicker, timeField)) {
             return;
@@ -116,14 +143,17 @@ public class DataEntryController implements Initializable {
         transaction.setTime(timeField.getText());
         transaction.setNotes(notesArea.getText());
         
-        boolean success = dbManager.saveTransaction(type, transaction);
-        
-        if (success) {
-            AlertUtil.showSuccess("تم حفظ البيانات بنجاح");
-            clearForm(employeeCombo, amountField, datePicker, timeField, notesArea);
-        } else {
-            AlertUtil.showError("حدث خطأ أثناء حفظ البيانات");
-        }
+        // Disabled until the insert completes so a double click cannot save twice
+        saveBtn.setDisable(true);
+        dbService.saveTransaction(type, transaction).thenAcceptAsync(success -> {
+            saveBtn.setDisable(false);
+            if (success) {
+                AlertUtil.showSuccess("تم حفظ البيانات بنجاح");
+                clearForm(employeeCombo, amountField, datePicker, timeField, notesArea);
+            } else {
+                AlertUtil.showError("حدث خطأ أثناء حفظ البيانات");
+            }
+        }, DatabaseService.fxThread());
     }
     
     private boolean validateInput(ComboBox<Employee> employeeCombo, TextField amountField, 
@@ -148,6 +178,11 @@ public class DataEntryController implements Initializable {
             return false;
         }
         
+        if (!Timestamps.isValidTime(timeField.getText())) {
+            AlertUtil.showWarning("يرجى إدخال وقت صحيح بصيغة HH:MM");
+            return false;
+        }
+        
         return true;
     }
     
@@ -160,7 +195,64 @@ public class DataEntryController implements Initializable {
         notesArea.clear();
     }
     
+    @FXML
+    private void importCsv() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("استيراد البيانات");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = chooser.showOpenDialog(importBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        importTask = new TransactionImportTask(file.toPath());
+        importProgressBar.progressProperty().bind(importTask.progressProperty());
+        setImporting(true);
+        
+        importTask.setOnSucceeded(event -> {
+            setImporting(false);
+            TransactionImportTask.Result result = importTask.getValue();
+            
+            String message = "تم استيراد " + result.getImported() + " معاملة";
+            if (result.getEmployeesCreated() > 0) {
+                message += " وإضافة " + result.getEmployeesCreated() + " موظف";
+            }
+            if (result.getErrorCount() > 0) {
+                AlertUtil.showWarning(message + "\nتعذر استيراد " + result.getErrorCount() +
+                        " سطر، راجع الملف:\n" + result.getReportPath());
+            } else {
+                AlertUtil.showSuccess(message);
+            }
+        });
+        importTask.setOnCancelled(event -> setImporting(false));
+        importTask.setOnFailed(event -> {
+            setImporting(false);
+            importTask.getException().printStackTrace();
+            AlertUtil.showError("حدث خطأ أثناء استيراد البيانات");
+        });
+        
+        Thread thread = new Thread(importTask, "csv-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @FXML
+    private void cancelImport() {
+        if (importTask != null) {
+            importTask.cancel();
+        }
+    }
+    
+    private void setImporting(boolean importing) {
+        importBar.setVisible(importing);
+        importBar.setManaged(importing);
+        importBtn.setDisable(importing);
+        if (!importing) {
+            importProgressBar.progressProperty().unbind();
+        }
+    }
+    
     public void refreshEmployees() {
-        loadEmployees();
+        dbService.getEmployeeDirectory().refresh();
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.accounting.controller;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.util.MetricSnapshot;
+import com.accounting.util.MetricsRegistry;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Callback;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.function.ToDoubleFunction;
+
+/** Lists every timer and counter in {@link MetricsRegistry} together with the connection pool stats. */
+public class DiagnosticsController implements Initializable, ActivatablePage {
+
+    @FXML private Label uptimeLabel;
+    @FXML private Label poolStatsLabel;
+    @FXML private Button refreshBtn;
+    @FXML private TableView<MetricSnapshot> metricsTable;
+    @FXML private TableColumn<MetricSnapshot, String> nameCol;
+    @FXML private TableColumn<MetricSnapshot, Long> countCol;
+    @FXML private TableColumn<MetricSnapshot, String> rateCol;
+    @FXML private TableColumn<MetricSnapshot, String> p50Col;
+    @FXML private TableColumn<MetricSnapshot, String> p99Col;
+    @FXML private TableColumn<MetricSnapshot, String> maxCol;
+
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        countCol.setCellValueFactory(new PropertyValueFactory<>("count"));
+        rateCol.setCellValueFactory(formatted(MetricSnapshot::getRatePerSecond));
+        p50Col.setCellValueFactory(formatted(MetricSnapshot::getP50Millis));
+        p99Col.setCellValueFactory(formatted(MetricSnapshot::getP99Millis));
+        maxCol.setCellValueFactory(formatted(MetricSnapshot::getMaxMillis));
+        refresh();
+    }
+
+    @Override
+    public void onActivated() {
+        refresh();
+    }
+
+    // Counters have no latency; their cells stay empty
+    private static Callback<TableColumn.CellDataFeatures<MetricSnapshot, String>, ObservableValue<String>> formatted(ToDoubleFunction<MetricSnapshot> value) {
+        return cell -> {
+            double v = value.applyAsDouble(cell.getValue());
+            return new SimpleStringProperty(Double.isNaN(v) ? "" : String.format(Locale.US, "%.3f", v));
+        };
+    }
+
+    @FXML
+    private void refresh() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metricsTable.getItems().setAll(metrics.snapshot());
+        uptimeLabel.setText(String.format(Locale.US, "مدة التشغيل: %.0f ثانية", metrics.getUptimeSeconds()));
+        poolStatsLabel.setText(DatabaseManager.getInstance().getPoolStats().toString());
+    }
+}
@@ -1,9 +1,8 @@
 package com.accounting.controller;
 
-import com.accounting.database.DatabaseManager;
+import com.accounting.database.DatabaseService;
 import com.accounting.model.Employee;
 import com.accounting.util.AlertUtil;
-import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -24,12 +23,12 @@ public class EmployeesController implements Initializable {
     @FXML private TableColumn<Employee, Integer> idCol;
     @FXML private TableColumn<Employee, String> nameCol;
     
-    private DatabaseManager dbManager;
+    private DatabaseService dbService;
     private Employee selectedEmployee;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        dbManager = DatabaseManager.getInstance();
+        dbService = DatabaseService.getInstance();
         setupTable();
         loadEmployees();
         setupButtons();
@@ -68,14 +67,16 @@ public class EmployeesController implements Initializable {
         Employee employee = new Employee();
         employee.setName(name);
         
-        boolean success = dbManager.saveEmployee(employee);
-        if (success) {
-            AlertUtil.showSuccess("تم إضافة الموظف بنجاح");
-            loadEmployees();
-            clearForm();
-        } else {
-            AlertUtil.showError("حدث خطأ أثناء إضافة الموظف");
-        }
+        addBtn.setDisable(true);
+        dbService.saveEmployee(employee).thenAcceptAsync(success -> {
+            addBtn.setDisable(false);
+            if (success) {
+                AlertUtil.showSuccess("تم إضافة الموظف بنجاح");
+                clearForm();
+            } else {
+                AlertUtil.showError("حدث خطأ أثناء إضافة الموظف");
+            }
+        }, DatabaseService.fxThread());
     }
     
     @FXML
@@ -88,16 +89,18 @@ public class EmployeesController implements Initializable {
             return;
         }
         
-        selectedEmployee.setName(name);
-        boolean success = dbManager.updateEmployee(selectedEmployee);
-        
-        if (success) {
-            AlertUtil.showSuccess("تم تحديث بيانات الموظف بنجاح");
-            loadEmployees();
-            clearForm();
-        } else {
-            AlertUtil.showError("حدث خطأ أثناء تحديث بيانات الموظف");
-        }
+        // A copy, so the shared list keeps the old name if the update fails
+        Employee updated = new Employee(selectedEmployee.getId(), name);
+        updateBtn.setDisable(true);
+        dbService.updateEmployee(updated).thenAcceptAsync(success -> {
+            if (success) {
+                AlertUtil.showSuccess("تم تحديث بيانات الموظف بنجاح");
+                clearForm();
+            } else {
+                updateBtn.setDisable(false);
+                AlertUtil.showError("حدث خطأ أثناء تحديث بيانات الموظف");
+            }
+        }, DatabaseService.fxThread());
     }
     
     @FXML
@@ -111,15 +114,16 @@ public class EmployeesController implements Initializable {
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            boolean success = dbManager.deleteEmployee(selectedEmployee.getId());
-            
-            if (success) {
-                AlertUtil.showSuccess("تم حذف الموظف بنجاح");
-                loadEmployees();
-                clearForm();
-            } else {
-                AlertUtil.showError("حدث خطأ أثناء حذف الموظف");
-            }
+            deleteBtn.setDisable(true);
+            dbService.deleteEmployee(selectedEmployee.getId()).thenAcceptAsync(success -> {
+                if (success) {
+                    AlertUtil.showSuccess("تم حذف الموظف بنجاح");
+                    clearForm();
+                } else {
+                    deleteBtn.setDisable(false);
+                    AlertUtil.showError("حدث خطأ أثناء حذف الموظف");
+                }
+            }, DatabaseService.fxThread());
         }
     }
     
@@ -133,7 +137,8 @@ public class EmployeesController implements Initializable {
     }
     
     private void loadEmployees() {
-        var employees = FXCollections.observableArrayList(dbManager.getAllEmployees());
-        employeesTable.setItems(employees);
+        // Shared list: adds, renames and deletes show up without reloading
+        employeesTable.setItems(dbService.getEmployeeDirectory().getEmployees());
+        employeesTable.setPlaceholder(new Label("لا يوجد موظفون"));
     }
 }
\ No newline at end of file
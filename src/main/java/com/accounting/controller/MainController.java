@@ -1,8 +1,9 @@
 package com.accounting.controller;
 
 import com.accounting.util.CurrencyManager;
+import com.accounting.util.CurrencySnapshot;
+import com.accounting.util.MetricsRegistry;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -11,6 +12,7 @@ import javafx.scene.layout.VBox;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
 import java.util.ResourceBundle;
 
 public class MainController implements Initializable {
@@ -21,15 +23,31 @@ public class MainController implements Initializable {
     @FXML private Button viewDataBtn;
     @FXML private Button employeesBtn;
     @FXML private Button settingsBtn;
+    @FXML private Button diagnosticsBtn;
     @FXML private Label currencyLabel;
     
+    private static final String DATA_ENTRY_PAGE = "/fxml/data-entry.fxml";
+    private static final String VIEW_DATA_PAGE = "/fxml/view-data.fxml";
+    private static final String EMPLOYEES_PAGE = "/fxml/employees.fxml";
+    private static final String SETTINGS_PAGE = "/fxml/settings.fxml";
+    private static final String DIAGNOSTICS_PAGE = "/fxml/diagnostics.fxml";
+    
+    private final ViewRegistry viewRegistry = new ViewRegistry();
     private Button activeButton;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        // The shell is shown while the database is still opening; pages need it, so wait
+        currencyLabel.setText("");
+        sideMenu.setDisable(true);
+    }
+    
+    /** Fills in the shell once the schema is migrated and the caches are loaded. */
+    public void onDatabaseReady() {
         updateCurrencyDisplay();
         loadDataEntryPage();
         setActiveButton(dataEntryBtn);
+        sideMenu.setDisable(false);
     }
     
     @FXML
@@ -56,31 +74,60 @@ public class MainController implements Initializable {
         setActiveButton(settingsBtn);
     }
     
+    @FXML
+    private void showDiagnostics() {
+        loadPage(DIAGNOSTICS_PAGE);
+        setActiveButton(diagnosticsBtn);
+    }
+    
     private void loadDataEntryPage() {
-        loadPage("/fxml/data-entry.fxml");
+        loadPage(DATA_ENTRY_PAGE);
     }
     
     private void loadViewDataPage() {
-        loadPage("/fxml/view-data.fxml");
+        loadPage(VIEW_DATA_PAGE);
     }
     
     private void loadEmployeesPage() {
-        loadPage("/fxml/employees.fxml");
+        loadPage(EMPLOYEES_PAGE);
     }
     
     private void loadSettingsPage() {
-        loadPage("/fxml/settings.fxml");
+        loadPage(SETTINGS_PAGE);
     }
     
     private void loadPage(String fxmlPath) {
+        long start = System.nanoTime();
+        PageLoadEvent event = new PageLoadEvent();
+        event.begin();
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            mainPane.setCenter(loader.load());
+            // Pages are built once; a page seen before only gets its activation hook
+            boolean loaded = viewRegistry.isLoaded(fxmlPath);
+            ViewRegistry.View view = viewRegistry.get(fxmlPath);
+            mainPane.setCenter(view.root);
+            if (loaded && view.controller instanceof ActivatablePage) {
+                ((ActivatablePage) view.controller).onActivated();
+            }
+            // e.g. ui.pageLoad.view-data for the first visit, ui.pageShow.view-data afterwards
+            String page = fxmlPath.substring(fxmlPath.lastIndexOf('/') + 1, fxmlPath.length() - ".fxml".length());
+            MetricsRegistry.getInstance().timer((loaded ? "ui.pageShow." : "ui.pageLoad.") + page).recordSince(start);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.page = page;
+                event.firstLoad = !loaded;
+                event.commit();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
+    /** Builds the pages that are not visible yet; call once the window has been painted. */
+    public void preloadPages() {
+        viewRegistry.preload(List.of(VIEW_DATA_PAGE, EMPLOYEES_PAGE, SETTINGS_PAGE));
+    }
+    
     private void setActiveButton(Button button) {
         if (activeButton != null) {
             activeButton.getStyleClass().remove("active");
@@ -90,7 +137,7 @@ public class MainController implements Initializable {
     }
     
     public void updateCurrencyDisplay() {
-        CurrencyManager cm = CurrencyManager.getInstance();
-        currencyLabel.setText(cm.getCurrentCurrency() + " (1 Kz = " + cm.getExchangeRate() + " USD)");
+        CurrencySnapshot currency = CurrencyManager.getInstance().getSnapshot();
+        currencyLabel.setText(currency.getCurrency() + " (1 Kz = " + currency.getExchangeRate() + " USD)");
     }
 }
\ No newline at end of file
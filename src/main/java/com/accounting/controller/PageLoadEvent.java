@@ -0,0 +1,22 @@
+package com.accounting.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event for one navigation in {@link MainController}, recorded on the FX thread. */
+@Name("com.accounting.PageLoad")
+@Label("Page Load")
+@Category({"Accounting", "UI"})
+@Description("Showing a page: parsing its FXML on the first visit, its activation hook afterwards")
+@StackTrace(false)
+final class PageLoadEvent extends Event {
+    @Label("Page")
+    String page;
+
+    @Label("First Load")
+    boolean firstLoad;
+}
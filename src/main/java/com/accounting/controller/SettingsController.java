@@ -1,5 +1,6 @@
 package com.accounting.controller;
 
+import com.accounting.database.DatabaseService;
 import com.accounting.util.AlertUtil;
 import com.accounting.util.CurrencyManager;
 import javafx.fxml.FXML;
@@ -8,13 +9,15 @@ import javafx.scene.control.*;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
-public class SettingsController implements Initializable {
+public class SettingsController implements Initializable, ActivatablePage {
     
     @FXML private RadioButton usdRadio;
     @FXML private RadioButton lbpRadio;
     @FXML private TextField exchangeRateField;
     @FXML private Button saveBtn;
+    @FXML private Button checkTotalsBtn;
     
     private ToggleGroup currencyGroup;
     private CurrencyManager currencyManager;
@@ -45,6 +48,12 @@ public class SettingsController implements Initializable {
         });
     }
     
+    @Override
+    public void onActivated() {
+        // Discard unsaved edits from the previous visit
+        loadCurrentSettings();
+    }
+    
     private void loadCurrentSettings() {
         String currency = currencyManager.getCurrentCurrency();
         if ("Kz".equals(currency)) {
@@ -75,17 +84,51 @@ public class SettingsController implements Initializable {
             }
         }
         
-        currencyManager.updateSettings(selectedCurrency, exchangeRate);
-        AlertUtil.showSuccess("تم حفظ الإعدادات بنجاح");
+        currencyManager.updateSettings(selectedCurrency, exchangeRate)
+                .whenCompleteAsync((saved, error) -> {
+                    if (error != null || !saved) {
+                        if (error != null) {
+                            error.printStackTrace();
+                        }
+                        // The previous currency and rate stay in effect
+                        AlertUtil.showError("حدث خطأ أثناء حفظ الإعدادات");
+                        return;
+                    }
+                    AlertUtil.showSuccess("تم حفظ الإعدادات بنجاح");
+                    
+                    // Update main window currency display
+                    try {
+                        MainController mainController = (MainController) exchangeRateField.getScene().getWindow().getUserData();
+                        if (mainController != null) {
+                            mainController.updateCurrencyDisplay();
+                        }
+                    } catch (Exception e) {
+                        // Ignore if main controller is not accessible
+                    }
+                }, DatabaseService.fxThread());
+    }
+    
+    @FXML
+    private void checkDailyTotals() {
+        DatabaseService dbService = DatabaseService.getInstance();
+        checkTotalsBtn.setDisable(true);
         
-        // Update main window currency display
-        try {
-            MainController mainController = (MainController) exchangeRateField.getScene().getWindow().getUserData();
-            if (mainController != null) {
-                mainController.updateCurrencyDisplay();
-            }
-        } catch (Exception e) {
-            // Ignore if main controller is not accessible
-        }
+        dbService.verifyDailyTotals()
+                .thenCompose(consistent -> consistent
+                        ? CompletableFuture.<Boolean>completedFuture(null)
+                        : dbService.rebuildDailyTotals())
+                .whenCompleteAsync((rebuilt, error) -> {
+                    checkTotalsBtn.setDisable(false);
+                    if (error != null) {
+                        error.printStackTrace();
+                        AlertUtil.showError("تعذر التحقق من الإجماليات اليومية");
+                    } else if (rebuilt == null) {
+                        AlertUtil.showSuccess("الإجماليات اليومية مطابقة للمعاملات");
+                    } else if (rebuilt) {
+                        AlertUtil.showSuccess("تم إعادة بناء الإجماليات اليومية بنجاح");
+                    } else {
+                        AlertUtil.showError("حدث خطأ أثناء إعادة بناء الإجماليات اليومية");
+                    }
+                }, DatabaseService.fxThread());
     }
 }
\ No newline at end of file
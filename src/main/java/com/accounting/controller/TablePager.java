@@ -0,0 +1,105 @@
+package com.accounting.controller;
+
+import com.accounting.database.DatabaseService;
+import com.accounting.model.TransactionView;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Feeds a transaction {@link TableView} one page at a time.
+ *
+ * A row factory watches which indexes the table is laying out; once a row near the end of the
+ * loaded items (or past it, when the first page does not fill the viewport) is shown, the next
+ * page is requested from the {@link PageSource}. Only the rows the user has scrolled past are
+ * ever held in memory.
+ */
+class TablePager<T extends TransactionView> {
+
+    /** Supplies pages in display order. */
+    interface PageSource<T> {
+        /**
+         * @param after the last row already shown, or null for the first page
+         */
+        CompletableFuture<List<T>> fetch(T after, int limit);
+    }
+
+    static final int PAGE_SIZE = 200;
+
+    // Start fetching when this many rows are left below the last visible one
+    private static final int PREFETCH_ROWS = 50;
+
+    private final TableView<T> table;
+
+    private PageSource<T> source;
+    private T lastLoaded;
+    private boolean loading;
+    private boolean exhausted = true;
+    private int generation;
+
+    TablePager(TableView<T> table) {
+        this.table = table;
+
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= tv.getItems().size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        // Sorting only the loaded rows would misrepresent the range, so rows stay in the source's
+        // order (newest first) and the headers are styled as plain labels rather than sort buttons
+        table.getColumns().forEach(column -> {
+            column.setSortable(false);
+            column.getStyleClass().add("unsortable");
+        });
+    }
+
+    /** Drops the current rows and loads the first page of {@code newSource}. */
+    CompletableFuture<Void> reset(PageSource<T> newSource) {
+        generation++;
+        source = newSource;
+        lastLoaded = null;
+        loading = false;
+        exhausted = false;
+        table.getItems().clear();
+        table.scrollTo(0);
+        return loadNextPage();
+    }
+
+    private CompletableFuture<Void> loadNextPage() {
+        if (loading || exhausted || source == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        loading = true;
+        int requestGeneration = generation;
+
+        return source.fetch(lastLoaded, PAGE_SIZE)
+                .handleAsync((page, error) -> {
+                    if (requestGeneration != generation) {
+                        return null;
+                    }
+                    loading = false;
+                    if (error != null) {
+                        // Stop paging this range; the next reset starts over
+                        error.printStackTrace();
+                        exhausted = true;
+                        return null;
+                    }
+                    if (page.size() < PAGE_SIZE) {
+                        exhausted = true;
+                    }
+                    if (!page.isEmpty()) {
+                        lastLoaded = page.get(page.size() - 1);
+                        table.getItems().addAll(page);
+                    }
+                    return null;
+                }, DatabaseService.fxThread());
+    }
+}
@@ -1,32 +1,65 @@
 package com.accounting.controller;
 
-import com.accounting.database.DatabaseManager;
+import com.accounting.database.ChangeEvent;
+import com.accounting.database.ColumnarRange;
+import com.accounting.database.DatabaseService;
+import com.accounting.model.Employee;
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.SearchResult;
+import com.accounting.model.TransactionFilter;
 import com.accounting.model.TransactionView;
+import com.accounting.util.AlertUtil;
 import com.accounting.util.CurrencyManager;
+import com.accounting.util.CurrencySnapshot;
+import com.accounting.util.LatencyTimer;
+import com.accounting.util.Log;
+import com.accounting.util.MetricsRegistry;
+import com.accounting.util.Timestamps;
+import com.accounting.util.TransactionExportTask;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import javafx.util.Callback;
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
-public class ViewDataController implements Initializable {
+public class ViewDataController implements Initializable, ActivatablePage {
 
     @FXML private DatePicker fromDatePicker;
     @FXML private DatePicker toDatePicker;
     @FXML private Button filterBtn;
+    @FXML private ProgressIndicator loadingIndicator;
+    @FXML private Button exportBtn;
+    @FXML private ComboBox<Employee> employeeFilterCombo;
+    @FXML private TextField minAmountField;
+    @FXML private TextField maxAmountField;
+    @FXML private Button clearFilterBtn;
+    @FXML private TextField searchField;
+    @FXML private Button searchBtn;
+
+    // Export progress
+    @FXML private HBox exportBar;
+    @FXML private Label exportStatusLabel;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Button cancelExportBtn;
     @FXML private TabPane tabPane;
 
     // Sales table
     @FXML private TableView<TransactionView> salesTable;
     @FXML private TableColumn<TransactionView, String> salesEmployeeCol;
-    @FXML private TableColumn<TransactionView, Double> salesAmountCol;
+    @FXML private TableColumn<TransactionView, TransactionView> salesAmountCol;
     @FXML private TableColumn<TransactionView, LocalDate> salesDateCol;
     @FXML private TableColumn<TransactionView, String> salesTimeCol;
     @FXML private TableColumn<TransactionView, String> salesNotesCol;
@@ -36,7 +69,7 @@ public class ViewDataController implements Initializable {
     // Expenses table
     @FXML private TableView<TransactionView> expensesTable;
     @FXML private TableColumn<TransactionView, String> expensesEmployeeCol;
-    @FXML private TableColumn<TransactionView, Double> expensesAmountCol;
+    @FXML private TableColumn<TransactionView, TransactionView> expensesAmountCol;
     @FXML private TableColumn<TransactionView, LocalDate> expensesDateCol;
     @FXML private TableColumn<TransactionView, String> expensesTimeCol;
     @FXML private TableColumn<TransactionView, String> expensesNotesCol;
@@ -46,25 +79,77 @@ public class ViewDataController implements Initializable {
     // Profits table
     @FXML private TableView<TransactionView> profitsTable;
     @FXML private TableColumn<TransactionView, String> profitsEmployeeCol;
-    @FXML private TableColumn<TransactionView, Double> profitsAmountCol;
+    @FXML private TableColumn<TransactionView, TransactionView> profitsAmountCol;
     @FXML private TableColumn<TransactionView, LocalDate> profitsDateCol;
     @FXML private TableColumn<TransactionView, String> profitsTimeCol;
     @FXML private TableColumn<TransactionView, String> profitsNotesCol;
     @FXML private TableColumn<TransactionView, Void> profitsActionCol;
     @FXML private Label profitsTotalLabel;
 
+    // Notes search results
+    @FXML private Tab searchTab;
+    @FXML private TableView<SearchResult> searchTable;
+    @FXML private TableColumn<SearchResult, String> searchTypeCol;
+    @FXML private TableColumn<SearchResult, String> searchEmployeeCol;
+    @FXML private TableColumn<SearchResult, SearchResult> searchAmountCol;
+    @FXML private TableColumn<SearchResult, LocalDate> searchDateCol;
+    @FXML private TableColumn<SearchResult, String> searchTimeCol;
+    @FXML private TableColumn<SearchResult, String> searchNotesCol;
+    @FXML private Label searchPlaceholder;
+
     // Summary labels
     @FXML private Label summaryTotalSales;
     @FXML private Label summaryTotalExpenses;
     @FXML private Label summaryTotalProfits;
     @FXML private Label summaryNetProfit;
 
-    private DatabaseManager dbManager;
+    private static final Map<String, String> TYPE_LABELS = Map.of(
+            "sales", "المبيعات", "expenses", "المصروفات", "profits", "الأرباح");
+
+    // Larger ranges are not copied into memory; filtering them runs the SQL queries instead
+    private static final int MAX_COLUMN_ROWS = Integer.getInteger("accounting.viewData.maxCachedRows", 500_000);
+
+    private static final LatencyTimer IN_MEMORY_FILTER_TIMER = MetricsRegistry.getInstance().timer("ui.viewData.inMemoryFilter");
+
+    private DatabaseService dbService;
     private CurrencyManager currencyManager;
 
+    // Incremented on every load so that results of a superseded filter are dropped
+    private int loadGeneration;
+
+    private TablePager<TransactionView> salesPager;
+    private TablePager<TransactionView> expensesPager;
+    private TablePager<TransactionView> profitsPager;
+    private TablePager<SearchResult> searchPager;
+
+    // Totals currently on the labels; null until the summary of the current load arrives
+    private PeriodSummary shownSummary;
+
+    // Range and filter of the rows and totals on screen, null before the first load
+    private LocalDate shownFrom;
+    private LocalDate shownTo;
+    private TransactionFilter shownFilter;
+
+    // Set by committed changes the page cannot apply in place; the next activation reloads
+    private boolean stale;
+    private boolean currencyChanged;
+    private boolean loading;
+
+    // Every row of the last loaded range, or null while it loads or if it is over MAX_COLUMN_ROWS
+    private ColumnarRange columns;
+
+    // Bumped by committed inserts and deletes within the shown dates, so a range read before one of
+    // them is not installed
+    private int transactionChanges;
+
+    // Words last searched for; the results follow the date filter until a new search replaces them
+    private String searchQuery;
+
+    private TransactionExportTask exportTask;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        dbManager = DatabaseManager.getInstance();
+        dbService = DatabaseService.getInstance();
         currencyManager = CurrencyManager.getInstance();
 
         // Set default date range (current month)
@@ -73,7 +158,21 @@ public class ViewDataController implements Initializable {
         toDatePicker.setValue(now);
 
         setupTables();
-        loadData();
+        employeeFilterCombo.setItems(dbService.getEmployeeDirectory().getEmployees());
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("viewData.columns.rows", () -> columns == null ? 0 : columns.size());
+        metrics.gauge("viewData.columns.bytes", () -> columns == null ? 0 : columns.estimatedBytes());
+
+        dbService.getChanges().subscribe(DatabaseService.fxThread(), this::onChanges);
+
+        // The page may be preloaded at startup and never opened; nothing is read until it is shown
+        stale = true;
+        tabPane.sceneProperty().addListener((observable, oldScene, scene) -> {
+            if (scene != null && stale && !loading) {
+                loadData();
+            }
+        });
     }
 
     private void setupTables() {
@@ -88,11 +187,33 @@ public class ViewDataController implements Initializable {
         // Setup Profits Table
         setupTable(profitsTable, profitsEmployeeCol, profitsAmountCol,
                 profitsDateCol, profitsTimeCol, profitsNotesCol, profitsActionCol, "profits");
+
+        // Rows are fetched page by page as the user scrolls
+        salesPager = new TablePager<>(salesTable);
+        expensesPager = new TablePager<>(expensesTable);
+        profitsPager = new TablePager<>(profitsTable);
+
+        setupSearchTable();
+        searchPager = new TablePager<>(searchTable);
+    }
+
+    private void setupSearchTable() {
+        searchTypeCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(TYPE_LABELS.get(cell.getValue().getType())));
+        searchEmployeeCol.setCellValueFactory(new PropertyValueFactory<>("employeeName"));
+        searchAmountCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        searchAmountCol.setCellFactory(column -> amountCell());
+        searchDateCol.setCellValueFactory(new PropertyValueFactory<>("date"));
+        searchDateCol.setCellFactory(column -> dateCell());
+        searchTimeCol.setCellValueFactory(new PropertyValueFactory<>("time"));
+        searchNotesCol.setCellValueFactory(new PropertyValueFactory<>("notes"));
+
+        searchEmployeeCol.getStyleClass().add("align-right");
+        searchNotesCol.getStyleClass().add("align-right");
     }
 
     private void setupTable(TableView<TransactionView> table,
                             TableColumn<TransactionView, String> employeeCol,
-                            TableColumn<TransactionView, Double> amountCol,
+                            TableColumn<TransactionView, TransactionView> amountCol,
                             TableColumn<TransactionView, LocalDate> dateCol,
                             TableColumn<TransactionView, String> timeCol,
                             TableColumn<TransactionView, String> notesCol,
@@ -101,27 +222,42 @@ public class ViewDataController implements Initializable {
 
         // Set cell value factories
         employeeCol.setCellValueFactory(new PropertyValueFactory<>("employeeName"));
-        amountCol.setCellValueFactory(new PropertyValueFactory<>("amount"));
+        // The cell shows the row's cached amount text
+        amountCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
         dateCol.setCellValueFactory(new PropertyValueFactory<>("date"));
         timeCol.setCellValueFactory(new PropertyValueFactory<>("time"));
         notesCol.setCellValueFactory(new PropertyValueFactory<>("notes"));
 
-        // Format amount column using CurrencyManager
-        amountCol.setCellFactory(column -> new TableCell<TransactionView, Double>() {
+        // Format amount column with the current currency settings
+        amountCol.setCellFactory(column -> amountCell());
+
+        // Format date column
+        dateCol.setCellFactory(column -> dateCell());
+
+        // Setup action column with delete button
+        setupActionColumn(actionCol, table, tableType);
+
+        // Set column alignment for RTL
+        employeeCol.getStyleClass().add("align-right");
+        notesCol.getStyleClass().add("align-right");
+    }
+
+    private <T extends TransactionView> TableCell<T, T> amountCell() {
+        return new TableCell<T, T>() {
             @Override
-            protected void updateItem(Double amount, boolean empty) {
-                super.updateItem(amount, empty);
-                if (empty || amount == null) {
+            protected void updateItem(T row, boolean empty) {
+                super.updateItem(row, empty);
+                if (empty || row == null) {
                     setText(null);
                 } else {
-                    // Use CurrencyManager to format the amount with clean display
-                    setText(currencyManager.formatAmountClean(amount));
+                    setText(row.getAmountText(currencyManager.getSnapshot()));
                 }
             }
-        });
+        };
+    }
 
-        // Format date column
-        dateCol.setCellFactory(column -> new TableCell<TransactionView, LocalDate>() {
+    private <T> TableCell<T, LocalDate> dateCell() {
+        return new TableCell<T, LocalDate>() {
             private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
             @Override
@@ -133,14 +269,7 @@ public class ViewDataController implements Initializable {
                     setText(formatter.format(date));
                 }
             }
-        });
-
-        // Setup action column with delete button
-        setupActionColumn(actionCol, table, tableType);
-
-        // Set column alignment for RTL
-        employeeCol.getStyleClass().add("align-right");
-        notesCol.getStyleClass().add("align-right");
+        };
     }
 
     private void setupActionColumn(TableColumn<TransactionView, Void> actionCol,
@@ -197,32 +326,207 @@ public class ViewDataController implements Initializable {
         Optional<ButtonType> result = confirmAlert.showAndWait();
 
         if (result.isPresent() && result.get() == deleteButtonType) {
-            boolean success = dbManager.deleteTransaction(tableType, transaction.getId());
-
-            if (success) {
-                // Show success message
-                Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                successAlert.setTitle("نجح الحذف");
-                successAlert.setHeaderText(null);
-                successAlert.setContentText("تم حذف المعاملة بنجاح.");
-                successAlert.showAndWait();
+            dbService.deleteTransaction(tableType, transaction.getId())
+                    .thenAcceptAsync(success -> {
+                        if (success) {
+                            // The row and totals were already updated by the change event
+                            Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
+                            successAlert.setTitle("نجح الحذف");
+                            successAlert.setHeaderText(null);
+                            successAlert.setContentText("تم حذف المعاملة بنجاح.");
+                            successAlert.showAndWait();
+                        } else {
+                            // Show error message
+                            Alert errorAlert = new Alert(Alert.AlertType.ERROR);
+                            errorAlert.setTitle("خطأ في الحذف");
+                            errorAlert.setHeaderText("فشل في حذف المعاملة");
+                            errorAlert.setContentText("حدث خطأ أثناء محاولة حذف المعاملة. يرجى المحاولة مرة أخرى.");
+                            errorAlert.showAndWait();
+                        }
+                    }, DatabaseService.fxThread());
+        }
+    }
 
-                // Refresh the data
-                loadData();
-            } else {
-                // Show error message
-                Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("خطأ في الحذف");
-                errorAlert.setHeaderText("فشل في حذف المعاملة");
-                errorAlert.setContentText("حدث خطأ أثناء محاولة حذف المعاملة. يرجى المحاولة مرة أخرى.");
-                errorAlert.showAndWait();
+    /** Applies changes committed by any page; called on the FX thread, a few times per bulk import. */
+    private void onChanges(List<ChangeEvent> changes) {
+        for (ChangeEvent change : changes) {
+            if (change instanceof ChangeEvent.TransactionDeleted deleted) {
+                removeDeletedRow(deleted);
+            } else if (change instanceof ChangeEvent.TransactionsInserted inserted) {
+                addInserted(inserted);
+            } else if (change instanceof ChangeEvent.EmployeeRenamed
+                    || change instanceof ChangeEvent.EmployeeDeleted
+                    || change instanceof ChangeEvent.TotalsRebuilt) {
+                // Rows carry employee names, deleting an employee deletes their transactions,
+                // and the totals come from the rebuilt rollup
+                stale = true;
+            } else if (change instanceof ChangeEvent.SettingChanged setting
+                    && (setting.getKey().equals("currency") || setting.getKey().equals("exchange_rate"))) {
+                currencyChanged = true;
             }
         }
+
+        // On screen and idle: reload now, once per batch. Otherwise on the next activation, or at
+        // the end of the running load, so an import seen from this page reloads one load at a time.
+        if (stale && !loading && tabPane.getScene() != null) {
+            loadData();
+        }
+    }
+
+    /**
+     * Takes a deleted row out of its table, the search results, the in-memory range and the totals,
+     * leaving every other row, the scroll position and the selection as they are.
+     */
+    private void removeDeletedRow(ChangeEvent.TransactionDeleted deleted) {
+        String type = deleted.getType();
+        if (columns != null) {
+            columns = columns.without(type, deleted.getId(), deleted.getOccurredAt());
+        }
+        searchTable.getItems().removeIf(result -> result.getId() == deleted.getId() && result.getType().equals(type));
+        if (shownFrom == null || !inShownDates(deleted)) {
+            return;
+        }
+        // Held by a range that may still be loading, whatever the filter
+        transactionChanges++;
+        if (!matchesShownFilter(deleted)) {
+            return;
+        }
+
+        // Without the row on screen, a page or summary read after the commit may already exclude it
+        if (shownSummary == null || !tableFor(type).getItems().removeIf(row -> row.getId() == deleted.getId())) {
+            stale = true;
+            return;
+        }
+        updateTotals(shownSummary.without(type, deleted.getAmountCents()));
+    }
+
+    private boolean inShownDates(ChangeEvent.TransactionDeleted deleted) {
+        LocalDate date = LocalDate.ofEpochDay(Timestamps.epochDay(deleted.getOccurredAt()));
+        return !date.isBefore(shownFrom) && !date.isAfter(shownTo);
+    }
+
+    private boolean matchesShownFilter(ChangeEvent.TransactionDeleted deleted) {
+        return (!shownFilter.hasEmployee() || shownFilter.getEmployeeId() == deleted.getEmployeeId())
+                && shownFilter.matchesAmount(deleted.getAmountCents());
+    }
+
+    // New rows have to be placed among the pages and counted, so any overlap means a reload
+    private void addInserted(ChangeEvent.TransactionsInserted inserted) {
+        if (columns != null && overlaps(inserted, columns.getFromDate(), columns.getToDate())) {
+            columns = null;
+        }
+        if (shownFrom != null && overlaps(inserted, shownFrom, shownTo)) {
+            transactionChanges++;
+            stale = true;
+        }
+    }
+
+    private boolean overlaps(ChangeEvent.TransactionsInserted inserted, LocalDate from, LocalDate to) {
+        return inserted.getFirstEpochDay() <= to.toEpochDay() && inserted.getLastEpochDay() >= from.toEpochDay();
+    }
+
+    private TableView<TransactionView> tableFor(String type) {
+        switch (type) {
+            case "sales":
+                return salesTable;
+            case "expenses":
+                return expensesTable;
+            default:
+                return profitsTable;
+        }
     }
 
     @FXML
     private void applyFilter() {
-        loadData();
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        TransactionFilter filter = readFilter();
+        if (filter == null) {
+            return;
+        }
+
+        // Narrowing what is already in memory needs no SQL
+        if (columns != null && fromDate != null && toDate != null && !fromDate.isAfter(toDate)
+                && columns.covers(fromDate, toDate)) {
+            showColumns(fromDate, toDate, filter);
+        } else {
+            loadData();
+        }
+    }
+
+    @FXML
+    private void clearFilter() {
+        minAmountField.clear();
+        maxAmountField.clear();
+        if (employeeFilterCombo.getValue() != null) {
+            // Fires the combo's action, which applies the filter
+            employeeFilterCombo.setValue(null);
+        } else {
+            applyFilter();
+        }
+    }
+
+    /** The employee and amount band entered above the tables, or null (after a warning) if an amount is invalid. */
+    private TransactionFilter readFilter() {
+        Employee employee = employeeFilterCombo.getValue();
+        long minCents = Long.MIN_VALUE;
+        long maxCents = Long.MAX_VALUE;
+        CurrencySnapshot currency = currencyManager.getSnapshot();
+        try {
+            // Entered in the displayed currency, compared with the stored USD cents
+            String min = minAmountField.getText() == null ? "" : minAmountField.getText().trim();
+            String max = maxAmountField.getText() == null ? "" : maxAmountField.getText().trim();
+            if (!min.isEmpty()) {
+                minCents = Math.round(currency.fromActiveToUSD(Double.parseDouble(min)) * 100);
+            }
+            if (!max.isEmpty()) {
+                maxCents = Math.round(currency.fromActiveToUSD(Double.parseDouble(max)) * 100);
+            }
+        } catch (NumberFormatException e) {
+            showAlert("خطأ في المبلغ", "يرجى إدخال مبلغ صحيح.");
+            return null;
+        }
+        if (minCents > maxCents) {
+            showAlert("خطأ في المبلغ", "الحد الأدنى للمبلغ يجب أن يكون أقل من الحد الأعلى.");
+            return null;
+        }
+        return new TransactionFilter(employee == null ? 0 : employee.getId(), minCents, maxCents);
+    }
+
+    /** Totals and tables for a covered range, computed from {@link #columns}; only notes are read from the database. */
+    private void showColumns(LocalDate fromDate, LocalDate toDate, TransactionFilter filter) {
+        long start = System.nanoTime();
+        loadGeneration++;  // a summary still arriving from SQL must not overwrite these totals
+        ColumnarRange range = columns;
+        shownFrom = fromDate;
+        shownTo = toDate;
+        shownFilter = filter;
+
+        updateTotals(range.summarize(fromDate, toDate, filter));
+        salesPager.reset(columnsSource(range, "sales", fromDate, toDate, filter));
+        expensesPager.reset(columnsSource(range, "expenses", fromDate, toDate, filter));
+        profitsPager.reset(columnsSource(range, "profits", fromDate, toDate, filter));
+        IN_MEMORY_FILTER_TIMER.recordSince(start);
+
+        if (searchQuery != null) {
+            searchPager.reset(searchSource(searchQuery, fromDate, toDate));
+        }
+    }
+
+    @Override
+    public void onActivated() {
+        // Only what changed while another page was shown is redone; a stale page has already
+        // started reloading when it was put back on screen
+        if (!stale && currencyChanged) {
+            currencyChanged = false;
+            if (shownSummary != null) {
+                updateTotals(shownSummary);
+            }
+            salesTable.refresh();
+            expensesTable.refresh();
+            profitsTable.refresh();
+            searchTable.refresh();
+        }
     }
 
     private void loadData() {
@@ -239,45 +543,229 @@ public class ViewDataController implements Initializable {
             return;
         }
 
-        // Load sales data
-        List<TransactionView> salesData = dbManager.getTransactionViews("sales", fromDate, toDate);
-        salesTable.getItems().clear();
-        salesTable.getItems().addAll(salesData);
-
-        // Load expenses data
-        List<TransactionView> expensesData = dbManager.getTransactionViews("expenses", fromDate, toDate);
-        expensesTable.getItems().clear();
-        expensesTable.getItems().addAll(expensesData);
-
-        // Load profits data
-        List<TransactionView> profitsData = dbManager.getTransactionViews("profits", fromDate, toDate);
-        profitsTable.getItems().clear();
-        profitsTable.getItems().addAll(profitsData);
-
-        // Update totals
-        updateTotals(salesData, expensesData, profitsData);
-    }
-
-    private void updateTotals(List<TransactionView> salesData,
-                              List<TransactionView> expensesData,
-                              List<TransactionView> profitsData) {
-
-        // Calculate totals
-        double totalSales = salesData.stream().mapToDouble(TransactionView::getAmount).sum();
-        double totalExpenses = expensesData.stream().mapToDouble(TransactionView::getAmount).sum();
-        double totalProfits = profitsData.stream().mapToDouble(TransactionView::getAmount).sum();
-        double netProfit = totalSales + totalProfits - totalExpenses;
-
-        // Update individual table totals using CurrencyManager with clean formatting
-        salesTotalLabel.setText("الإجمالي: " + currencyManager.formatAmountClean(totalSales));
-        expensesTotalLabel.setText("الإجمالي: " + currencyManager.formatAmountClean(totalExpenses));
-        profitsTotalLabel.setText("الإجمالي: " + currencyManager.formatAmountClean(totalProfits));
-
-        // Update summary using CurrencyManager with clean formatting
-        summaryTotalSales.setText(currencyManager.formatAmountClean(totalSales));
-        summaryTotalExpenses.setText(currencyManager.formatAmountClean(totalExpenses));
-        summaryTotalProfits.setText(currencyManager.formatAmountClean(totalProfits));
-        summaryNetProfit.setText(currencyManager.formatAmountClean(netProfit));
+        TransactionFilter filter = readFilter();
+        if (filter == null) {
+            return;
+        }
+
+        int generation = ++loadGeneration;
+        columns = null;
+        shownSummary = null;
+        shownFrom = fromDate;
+        shownTo = toDate;
+        shownFilter = filter;
+        stale = false;
+        currencyChanged = false;
+        setLoading(true);
+
+        // Totals come from one aggregate; each table only fetches its first page now.
+        // Every phase is also a Flight Recorder event, visible when a recording is running.
+        CompletableFuture<PeriodSummary> summaryFuture = ViewDataLoadEvent.phase("summary", fromDate, toDate,
+                () -> dbService.getPeriodSummary(fromDate, toDate, filter)
+                        .thenApplyAsync(summary -> {
+                            if (generation == loadGeneration) {
+                                updateTotals(summary);
+                            }
+                            return summary;
+                        }, DatabaseService.fxThread()));
+
+        CompletableFuture<Void> salesFuture = ViewDataLoadEvent.phase("sales", fromDate, toDate,
+                () -> salesPager.reset(pageSource("sales", fromDate, toDate, filter)));
+        CompletableFuture<Void> expensesFuture = ViewDataLoadEvent.phase("expenses", fromDate, toDate,
+                () -> expensesPager.reset(pageSource("expenses", fromDate, toDate, filter)));
+        CompletableFuture<Void> profitsFuture = ViewDataLoadEvent.phase("profits", fromDate, toDate,
+                () -> profitsPager.reset(pageSource("profits", fromDate, toDate, filter)));
+
+        CompletableFuture<Void> searchFuture = searchQuery == null
+                ? CompletableFuture.completedFuture(null)
+                : ViewDataLoadEvent.phase("search", fromDate, toDate,
+                        () -> searchPager.reset(searchSource(searchQuery, fromDate, toDate)));
+
+        ViewDataLoadEvent.phase("all", fromDate, toDate,
+                () -> CompletableFuture.allOf(summaryFuture, salesFuture, expensesFuture, profitsFuture, searchFuture))
+                .whenCompleteAsync((ignored, error) -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    setLoading(false);
+                    if (stale && tabPane.getScene() != null) {
+                        // Rows were added while loading; this load may have missed some
+                        loadData();
+                        return;
+                    }
+
+                    if (error != null) {
+                        error.printStackTrace();
+                        showAlert("خطأ", "حدث خطأ أثناء تحميل البيانات.");
+                    } else {
+                        loadColumns(generation, fromDate, toDate);
+                    }
+                }, DatabaseService.fxThread());
+    }
+
+    /** Copies the whole range into memory once the first pages are shown, so later filtering skips SQL. */
+    private void loadColumns(int generation, LocalDate fromDate, LocalDate toDate) {
+        int changes = transactionChanges;
+        ViewDataLoadEvent.phase("columns", fromDate, toDate,
+                () -> dbService.loadColumns(fromDate, toDate, MAX_COLUMN_ROWS))
+                .whenCompleteAsync((range, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                        return;
+                    }
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    if (changes != transactionChanges) {
+                        // Read before a later commit; a stale page reloads everything anyway
+                        if (!stale) {
+                            loadColumns(generation, fromDate, toDate);
+                        }
+                        return;
+                    }
+                    columns = range;
+                    if (range == null) {
+                        Log.debug("View data: range over " + MAX_COLUMN_ROWS + " rows, filtering stays on SQL");
+                    } else {
+                        Log.debug("View data: " + range.size() + " rows in memory, about "
+                                + range.estimatedBytes() / 1024 + " KB");
+                    }
+                }, DatabaseService.fxThread());
+    }
+
+    private TablePager.PageSource<TransactionView> pageSource(String type, LocalDate fromDate, LocalDate toDate,
+                                                             TransactionFilter filter) {
+        return (after, limit) -> dbService.getTransactionPage(type, fromDate, toDate, filter, after, limit);
+    }
+
+    // Rows are cut from the in-memory selection; one query per page fetches just their notes
+    private TablePager.PageSource<TransactionView> columnsSource(ColumnarRange range, String type, LocalDate fromDate,
+                                                                LocalDate toDate, TransactionFilter filter) {
+        int[] selection = range.select(type, fromDate, toDate, filter);
+        return (after, limit) -> dbService.fillNotes(type,
+                range.rows(type, selection, range.positionAfter(type, selection, after), limit));
+    }
+
+    // Results are ranked, not ordered by a key, so the next page skips as many matches as are shown.
+    // Counting the rows (rather than using the last rank) stays right after a shown match is deleted.
+    private TablePager.PageSource<SearchResult> searchSource(String query, LocalDate fromDate, LocalDate toDate) {
+        return (after, limit) -> dbService.searchNotes(query, fromDate, toDate,
+                after == null ? 0 : searchTable.getItems().size(), limit);
+    }
+
+    @FXML
+    private void search() {
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+            showAlert("خطأ في التاريخ", "يرجى تحديد فترة صحيحة قبل البحث.");
+            return;
+        }
+
+        String query = searchField.getText() == null ? "" : searchField.getText().trim();
+        if (query.isEmpty()) {
+            searchQuery = null;
+            searchPager.reset(null);
+            searchPlaceholder.setText("اكتب كلمة في خانة البحث لعرض المعاملات المطابقة.");
+            return;
+        }
+
+        searchQuery = query;
+        searchPlaceholder.setText("لا توجد معاملات تطابق \"" + query + "\" في هذه الفترة.");
+        tabPane.getSelectionModel().select(searchTab);
+
+        searchBtn.setDisable(true);
+        ViewDataLoadEvent.phase("search", fromDate, toDate,
+                () -> searchPager.reset(searchSource(query, fromDate, toDate)))
+                .whenCompleteAsync((ignored, error) -> {
+                    searchBtn.setDisable(false);
+                    if (error != null) {
+                        error.printStackTrace();
+                        showAlert("خطأ", "حدث خطأ أثناء البحث.");
+                    }
+                }, DatabaseService.fxThread());
+    }
+
+    @FXML
+    private void exportCsv() {
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+            showAlert("خطأ في التاريخ", "يرجى تحديد فترة صحيحة قبل التصدير.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("تصدير البيانات");
+        chooser.setInitialFileName("transactions_" + fromDate + "_" + toDate + ".csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = chooser.showSaveDialog(exportBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        exportTask = new TransactionExportTask(file.toPath(), fromDate, toDate);
+        exportProgressBar.progressProperty().bind(exportTask.progressProperty());
+        setExporting(true);
+
+        exportTask.setOnSucceeded(event -> {
+            setExporting(false);
+            AlertUtil.showSuccess("تم تصدير " + exportTask.getValue() + " معاملة بنجاح");
+        });
+        exportTask.setOnCancelled(event -> setExporting(false));
+        exportTask.setOnFailed(event -> {
+            setExporting(false);
+            exportTask.getException().printStackTrace();
+            AlertUtil.showError("حدث خطأ أثناء تصدير البيانات");
+        });
+
+        Thread thread = new Thread(exportTask, "csv-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void cancelExport() {
+        if (exportTask != null) {
+            exportTask.cancel();
+        }
+    }
+
+    private void setExporting(boolean exporting) {
+        exportBar.setVisible(exporting);
+        exportBar.setManaged(exporting);
+        exportBtn.setDisable(exporting);
+        if (!exporting) {
+            exportProgressBar.progressProperty().unbind();
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        this.loading = loading;
+        loadingIndicator.setVisible(loading);
+        filterBtn.setDisable(loading);
+    }
+
+    private void updateTotals(PeriodSummary summary) {
+        shownSummary = summary;
+        double totalSales = summary.getTotalSales();
+        double totalExpenses = summary.getTotalExpenses();
+        double totalProfits = summary.getTotalProfits();
+        double netProfit = summary.getNetProfit();
+        CurrencySnapshot currency = currencyManager.getSnapshot();
+
+        // Update individual table totals with clean formatting
+        salesTotalLabel.setText("الإجمالي: " + currency.formatAmountClean(totalSales));
+        expensesTotalLabel.setText("الإجمالي: " + currency.formatAmountClean(totalExpenses));
+        profitsTotalLabel.setText("الإجمالي: " + currency.formatAmountClean(totalProfits));
+
+        // Update summary with clean formatting
+        summaryTotalSales.setText(currency.formatAmountClean(totalSales));
+        summaryTotalExpenses.setText(currency.formatAmountClean(totalExpenses));
+        summaryTotalProfits.setText(currency.formatAmountClean(totalProfits));
+        summaryNetProfit.setText(currency.formatAmountClean(netProfit));
 
         // Apply styles based on values
         updateSummaryStyles(netProfit);
@@ -0,0 +1,49 @@
+package com.accounting.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Flight Recorder event for one phase of {@link ViewDataController}'s data load: the period summary,
+ * the first page of each table, or the whole load. A phase starts on the FX thread and ends when its
+ * result has been shown, so its duration includes the database call and the wait for the FX thread.
+ */
+@Name("com.accounting.ViewDataLoad")
+@Label("View Data Load")
+@Category({"Accounting", "UI"})
+@Description("A phase of loading the view-data page for a date range")
+@StackTrace(false)
+final class ViewDataLoadEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("From")
+    String fromDate;
+
+    @Label("To")
+    String toDate;
+
+    /** Runs {@code work} as the named phase; the event is committed when its future completes. */
+    static <T> CompletableFuture<T> phase(String phase, LocalDate fromDate, LocalDate toDate,
+                                          Supplier<CompletableFuture<T>> work) {
+        ViewDataLoadEvent event = new ViewDataLoadEvent();
+        event.begin();
+        return work.get().whenComplete((result, error) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase;
+                event.fromDate = fromDate.toString();
+                event.toDate = toDate.toString();
+                event.commit();
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.accounting.controller;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses each page's FXML once and keeps its node graph and controller for later visits.
+ * All methods run on the FX thread.
+ */
+class ViewRegistry {
+
+    /** A loaded page. */
+    static class View {
+        final Parent root;
+        final Object controller;
+
+        View(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
+    private final Map<String, View> views = new HashMap<>();
+
+    /** Whether {@code fxmlPath} has been loaded already. */
+    boolean isLoaded(String fxmlPath) {
+        return views.containsKey(fxmlPath);
+    }
+
+    /** The page for {@code fxmlPath}, loading it (and running its controller's initialize) on first use. */
+    View get(String fxmlPath) throws IOException {
+        View view = views.get(fxmlPath);
+        if (view == null) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
+            Parent root = loader.load();
+            view = new View(root, loader.getController());
+            views.put(fxmlPath, view);
+        }
+        return view;
+    }
+
+    /**
+     * Loads the given pages in the background of the FX thread, one per pulse, so the
+     * window keeps painting in between. Pages already loaded are skipped.
+     */
+    void preload(List<String> fxmlPaths) {
+        preloadNext(new ArrayDeque<>(fxmlPaths));
+    }
+
+    private void preloadNext(Deque<String> remaining) {
+        String fxmlPath = remaining.poll();
+        if (fxmlPath == null) {
+            return;
+        }
+
+        Platform.runLater(() -> {
+            try {
+                get(fxmlPath);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            preloadNext(remaining);
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.accounting.database;
+
+import com.accounting.util.Counter;
+import com.accounting.util.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers committed {@link ChangeEvent}s to listeners, each on the executor it subscribed with.
+ *
+ * Delivery is coalescing: a listener has at most one delivery queued on its executor, and events
+ * published before that delivery runs are added to it (with inserts merged per table type). A
+ * bulk import therefore reaches a UI listener as a handful of batches, however many rows and
+ * commits it takes, and a listener whose executor is busy simply catches up in one call.
+ *
+ * Events are handed to the listeners' executors from a single "db-changes" thread rather than
+ * from the writer that committed them, so no listener, whatever its executor, can hold up or
+ * deadlock the write queue. Publishing order is kept.
+ */
+public class ChangeBus {
+    private static final Counter PUBLISHED = MetricsRegistry.getInstance().counter("db.changes.published");
+    private static final Counter DELIVERED = MetricsRegistry.getInstance().counter("db.changes.batches");
+
+    /** Receives the changes committed since its previous call, oldest first. */
+    public interface Listener {
+        void onChanges(List<ChangeEvent> changes);
+    }
+
+    /** Handle returned by {@link #subscribe}. */
+    public interface Subscription {
+        /** Stops deliveries; one already running is not interrupted. */
+        void cancel();
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Calls {@code listener} on {@code executor} after every commit that changes something, e.g.
+     * {@code subscribe(DatabaseService.fxThread(), this::onChanges)} for a controller.
+     *
+     * With a direct executor ({@code Runnable::run}) the listener runs on the db-changes thread;
+     * it may then wait on a write, but every other listener waits for it to return.
+     */
+    public Subscription subscribe(Executor executor, Listener listener) {
+        Subscriber subscriber = new Subscriber(executor, listener);
+        subscribers.add(subscriber);
+        return () -> {
+            subscriber.cancelled = true;
+            subscribers.remove(subscriber);
+        };
+    }
+
+    void publish(ChangeEvent event) {
+        publish(List.of(event));
+    }
+
+    /** Called by the writer after the commit that made {@code events} durable. */
+    void publish(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        PUBLISHED.add(events.size());
+        dispatcher.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(events);
+            }
+        });
+    }
+
+    private static class Subscriber {
+        private final Executor executor;
+        private final Listener listener;
+        private volatile boolean cancelled;
+
+        // Guarded by this; scheduled while a delivery is queued on the executor and not yet started
+        private List<ChangeEvent> pending = new ArrayList<>();
+        private boolean scheduled;
+
+        Subscriber(Executor executor, Listener listener) {
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        synchronized void offer(List<ChangeEvent> events) {
+            pending.addAll(events);
+            if (!scheduled) {
+                scheduled = true;
+                try {
+                    executor.execute(this::deliver);
+                } catch (RuntimeException e) {
+                    // e.g. the FX toolkit is not running; later events must still be dispatched
+                    e.printStackTrace();
+                    pending.clear();
+                    scheduled = false;
+                }
+            }
+        }
+
+        private void deliver() {
+            List<ChangeEvent> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+                scheduled = false;
+            }
+            if (cancelled) {
+                return;
+            }
+            DELIVERED.increment();
+            try {
+                listener.onChanges(ChangeEvent.coalesce(batch));
+            } catch (RuntimeException e) {
+                // A failing listener must not stop the dispatcher or other listeners
+                e.printStackTrace();
+            }
+        }
+    }
+}
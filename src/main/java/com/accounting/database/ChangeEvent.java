@@ -0,0 +1,162 @@
+package com.accounting.database;
+
+import com.accounting.util.Timestamps;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A committed change to the database, published by {@link DatabaseManager} on its {@link ChangeBus}.
+ *
+ * Each kind of change is a subclass; listeners test for the ones they care about with
+ * {@code instanceof}. Events are only created after the write that caused them has been committed.
+ */
+public abstract class ChangeEvent {
+
+    private ChangeEvent() {}
+
+    /**
+     * One or more rows inserted into one transaction table. A bulk insert, or several inserts
+     * delivered together, is reported as a single event with the combined count and total.
+     */
+    public static final class TransactionsInserted extends ChangeEvent {
+        private final String type;
+        private final int count;
+        private final long totalCents;
+        private final long firstEpochDay;
+        private final long lastEpochDay;
+
+        TransactionsInserted(String type, int count, long totalCents, long firstEpochDay, long lastEpochDay) {
+            this.type = type;
+            this.count = count;
+            this.totalCents = totalCents;
+            this.firstEpochDay = firstEpochDay;
+            this.lastEpochDay = lastEpochDay;
+        }
+
+        static TransactionsInserted single(String type, long amountCents, long occurredAt) {
+            long day = Timestamps.epochDay(occurredAt);
+            return new TransactionsInserted(type, 1, amountCents, day, day);
+        }
+
+        /** "sales", "expenses" or "profits". */
+        public String getType() { return type; }
+        public int getCount() { return count; }
+        public long getTotalCents() { return totalCents; }
+        /** Earliest and latest day of the inserted rows; nothing outside them changed. */
+        public long getFirstEpochDay() { return firstEpochDay; }
+        public long getLastEpochDay() { return lastEpochDay; }
+
+        TransactionsInserted plus(TransactionsInserted other) {
+            return new TransactionsInserted(type, count + other.count, totalCents + other.totalCents,
+                    Math.min(firstEpochDay, other.firstEpochDay), Math.max(lastEpochDay, other.lastEpochDay));
+        }
+    }
+
+    /** One transaction deleted, with the values it had so totals can be adjusted without a query. */
+    public static final class TransactionDeleted extends ChangeEvent {
+        private final String type;
+        private final int id;
+        private final int employeeId;
+        private final long amountCents;
+        private final long occurredAt;
+
+        TransactionDeleted(String type, int id, int employeeId, long amountCents, long occurredAt) {
+            this.type = type;
+            this.id = id;
+            this.employeeId = employeeId;
+            this.amountCents = amountCents;
+            this.occurredAt = occurredAt;
+        }
+
+        public String getType() { return type; }
+        public int getId() { return id; }
+        public int getEmployeeId() { return employeeId; }
+        public long getAmountCents() { return amountCents; }
+        public long getOccurredAt() { return occurredAt; }
+    }
+
+    /** The daily totals of one table type were recomputed; totals read before may be out of date. */
+    public static final class TotalsRebuilt extends ChangeEvent {
+        private final String type;
+
+        TotalsRebuilt(String type) {
+            this.type = type;
+        }
+
+        public String getType() { return type; }
+    }
+
+    public static final class EmployeeAdded extends ChangeEvent {
+        private final int id;
+        private final String name;
+
+        EmployeeAdded(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    public static final class EmployeeRenamed extends ChangeEvent {
+        private final int id;
+        private final String name;
+
+        EmployeeRenamed(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    /** An employee was deleted together with all of their transactions. */
+    public static final class EmployeeDeleted extends ChangeEvent {
+        private final int id;
+
+        EmployeeDeleted(int id) {
+            this.id = id;
+        }
+
+        public int getId() { return id; }
+    }
+
+    public static final class SettingChanged extends ChangeEvent {
+        private final String key;
+        private final String value;
+
+        SettingChanged(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey() { return key; }
+        public String getValue() { return value; }
+    }
+
+    /**
+     * {@code events} with all insert events of the same table type merged into one, placed where
+     * the first of them was. Every other event is kept, in order.
+     */
+    static List<ChangeEvent> coalesce(List<ChangeEvent> events) {
+        Map<String, Integer> insertIndexes = new LinkedHashMap<>();
+        List<ChangeEvent> merged = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            if (event instanceof TransactionsInserted inserted) {
+                Integer index = insertIndexes.get(inserted.getType());
+                if (index != null) {
+                    merged.set(index, ((TransactionsInserted) merged.get(index)).plus(inserted));
+                    continue;
+                }
+                insertIndexes.put(inserted.getType(), merged.size());
+            }
+            merged.add(event);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,291 @@
+package com.accounting.database;
+
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.TransactionFilter;
+import com.accounting.model.TransactionView;
+import com.accounting.util.Timestamps;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every transaction of one date range, held in memory column by column.
+ *
+ * Each table type is a set of parallel primitive arrays (id, amount, epoch day, second of day,
+ * employee index) ordered newest first like the table pages, about {@value #BYTES_PER_ROW} bytes
+ * per row. Employees are dictionary-encoded. Notes are left in the database: {@link #rows} returns
+ * views without them and the caller fills in the few that are shown.
+ *
+ * Totals and selections for any employee, amount band or sub-range of the loaded range are then
+ * computed by scanning the arrays, with no SQL. The arrays never change once built, so an instance
+ * may be shared between threads; {@link #without} returns a copy instead.
+ */
+public final class ColumnarRange {
+    static final int BYTES_PER_ROW = Integer.BYTES * 4 + Long.BYTES;
+
+    // Employee filter that no loaded row can match
+    private static final int NO_EMPLOYEE = -2;
+    private static final int ANY_EMPLOYEE = -1;
+
+    private final DatabaseManager dbManager;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final int[] employeeIds;
+    private final Map<String, Column> columns;
+
+    ColumnarRange(DatabaseManager dbManager, LocalDate fromDate, LocalDate toDate,
+                  int[] employeeIds, Map<String, Column> columns) {
+        this.dbManager = dbManager;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.employeeIds = employeeIds;
+        this.columns = columns;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    /** True if every day of {@code from..to} was loaded, so it can be answered from memory. */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !from.isBefore(fromDate) && !to.isAfter(toDate);
+    }
+
+    /** Number of transactions held, all types together. */
+    public int size() {
+        int size = 0;
+        for (Column column : columns.values()) {
+            size += column.size;
+        }
+        return size;
+    }
+
+    /** Heap used by the arrays, in bytes (object headers excluded). */
+    public long estimatedBytes() {
+        return (long) size() * BYTES_PER_ROW + (long) employeeIds.length * Integer.BYTES;
+    }
+
+    /** Same numbers as {@link DatabaseManager#getPeriodSummary}, for a covered range and a filter. */
+    public PeriodSummary summarize(LocalDate from, LocalDate to, TransactionFilter filter) {
+        int employee = employeeIndexOf(filter);
+        long[] sales = columns.get("sales").total(from, to, filter, employee);
+        long[] expenses = columns.get("expenses").total(from, to, filter, employee);
+        long[] profits = columns.get("profits").total(from, to, filter, employee);
+        return new PeriodSummary(sales[0], sales[1], expenses[0], expenses[1], profits[0], profits[1]);
+    }
+
+    /** Indexes of the matching rows of {@code type}, newest first; pass them to {@link #rows}. */
+    public int[] select(String type, LocalDate from, LocalDate to, TransactionFilter filter) {
+        return columns.get(type).select(from, to, filter, employeeIndexOf(filter));
+    }
+
+    /**
+     * Position in {@code selection} of the first row that sorts after {@code after}, the last row
+     * already shown (0 when {@code after} is null), so pages can be cut like keyset pages.
+     */
+    public int positionAfter(String type, int[] selection, TransactionView after) {
+        if (after == null) {
+            return 0;
+        }
+        Column column = columns.get(type);
+        int low = 0;
+        int high = selection.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (column.sortsBefore(selection[middle], after.getOccurredAt(), after.getId())) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /** Up to {@code limit} rows of {@code selection} from {@code start}; their notes are null. */
+    public List<TransactionView> rows(String type, int[] selection, int start, int limit) {
+        Column column = columns.get(type);
+        int end = Math.min(selection.length, start + limit);
+        List<TransactionView> rows = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            int row = selection[i];
+            rows.add(new TransactionView(
+                    column.ids[row],
+                    dbManager.getEmployeeName(employeeIds[column.employeeIndexes[row]]),
+                    column.amountCents[row],
+                    column.occurredAt(row),
+                    null));
+        }
+        return rows;
+    }
+
+    /** A copy without the row {@code id} (e.g. after it was deleted), or this range if it does not hold the row. */
+    public ColumnarRange without(String type, int id, long occurredAt) {
+        Column column = columns.get(type);
+        int index = column.indexOf(occurredAt, id);
+        if (index < 0) {
+            return this;
+        }
+        Map<String, Column> copy = new HashMap<>(columns);
+        copy.put(type, column.without(index));
+        return new ColumnarRange(dbManager, fromDate, toDate, employeeIds, copy);
+    }
+
+    private int employeeIndexOf(TransactionFilter filter) {
+        if (!filter.hasEmployee()) {
+            return ANY_EMPLOYEE;
+        }
+        for (int i = 0; i < employeeIds.length; i++) {
+            if (employeeIds[i] == filter.getEmployeeId()) {
+                return i;
+            }
+        }
+        return NO_EMPLOYEE;
+    }
+
+    /** The rows of one table type; filled once by {@link DatabaseManager#loadColumns}. */
+    static final class Column {
+        private int size;
+        private int[] ids;
+        private long[] amountCents;
+        private int[] epochDays;
+        private int[] secondsOfDay;
+        private int[] employeeIndexes;
+
+        Column(int capacity) {
+            ids = new int[capacity];
+            amountCents = new long[capacity];
+            epochDays = new int[capacity];
+            secondsOfDay = new int[capacity];
+            employeeIndexes = new int[capacity];
+        }
+
+        /** Appends a row; rows must arrive newest first. */
+        void add(int id, long cents, long occurredAt, int employeeIndex) {
+            if (size == ids.length) {
+                // Rows inserted after the count was taken
+                resize(Math.max(16, size * 2));
+            }
+            ids[size] = id;
+            amountCents[size] = cents;
+            epochDays[size] = (int) Timestamps.epochDay(occurredAt);
+            secondsOfDay[size] = Timestamps.secondOfDay(occurredAt);
+            employeeIndexes[size] = employeeIndex;
+            size++;
+        }
+
+        void trim() {
+            if (size < ids.length) {
+                resize(size);
+            }
+        }
+
+        private void resize(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            secondsOfDay = Arrays.copyOf(secondsOfDay, capacity);
+            employeeIndexes = Arrays.copyOf(employeeIndexes, capacity);
+        }
+
+        long occurredAt(int row) {
+            return epochDays[row] * Timestamps.SECONDS_PER_DAY + secondsOfDay[row];
+        }
+
+        /** Index of the row with this timestamp and id, or -1. */
+        int indexOf(long occurredAt, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortsBefore(middle, occurredAt, id)) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            // low is the first row after the key, so a match sits just before it
+            int row = low - 1;
+            return row >= 0 && ids[row] == id && occurredAt(row) == occurredAt ? row : -1;
+        }
+
+        Column without(int row) {
+            Column copy = new Column(size - 1);
+            copy.size = size - 1;
+            removeAt(ids, copy.ids, row);
+            removeAt(epochDays, copy.epochDays, row);
+            removeAt(secondsOfDay, copy.secondsOfDay, row);
+            removeAt(employeeIndexes, copy.employeeIndexes, row);
+            System.arraycopy(amountCents, 0, copy.amountCents, 0, row);
+            System.arraycopy(amountCents, row + 1, copy.amountCents, row, size - row - 1);
+            return copy;
+        }
+
+        private void removeAt(int[] from, int[] to, int row) {
+            System.arraycopy(from, 0, to, 0, row);
+            System.arraycopy(from, row + 1, to, row, size - row - 1);
+        }
+
+        boolean sortsBefore(int row, long occurredAt, int id) {
+            long rowOccurredAt = occurredAt(row);
+            return rowOccurredAt < occurredAt || (rowOccurredAt == occurredAt && ids[row] < id);
+        }
+
+        /** {cents, count} of the matching rows. */
+        long[] total(LocalDate from, LocalDate to, TransactionFilter filter, int employee) {
+            long cents = 0;
+            long count = 0;
+            if (employee == NO_EMPLOYEE) {
+                return new long[] {cents, count};
+            }
+            int end = firstBefore(from.toEpochDay());
+            for (int row = firstBefore(to.toEpochDay() + 1); row < end; row++) {
+                if ((employee == ANY_EMPLOYEE || employeeIndexes[row] == employee)
+                        && filter.matchesAmount(amountCents[row])) {
+                    cents += amountCents[row];
+                    count++;
+                }
+            }
+            return new long[] {cents, count};
+        }
+
+        int[] select(LocalDate from, LocalDate to, TransactionFilter filter, int employee) {
+            if (employee == NO_EMPLOYEE) {
+                return new int[0];
+            }
+            int start = firstBefore(to.toEpochDay() + 1);
+            int end = firstBefore(from.toEpochDay());
+            int[] selection = new int[end - start];
+            int count = 0;
+            for (int row = start; row < end; row++) {
+                if ((employee == ANY_EMPLOYEE || employeeIndexes[row] == employee)
+                        && filter.matchesAmount(amountCents[row])) {
+                    selection[count++] = row;
+                }
+            }
+            return count == selection.length ? selection : Arrays.copyOf(selection, count);
+        }
+
+        // Days are descending, so the rows of a day range are one run found by two binary searches
+        private int firstBefore(long epochDay) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (epochDays[middle] < epochDay) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.accounting.database;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One writer connection plus a fixed set of read-only connections.
+ *
+ * Under WAL, SQLite lets any number of readers run next to a single writer, so SELECTs
+ * borrow a reader while every INSERT/UPDATE/DELETE goes through the one writer, which is
+ * guarded by a lock for the whole unit of work (including multi-statement transactions).
+ */
+class ConnectionPool {
+    private final PooledConnection writer;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final List<PooledConnection> readers = new ArrayList<>();
+    private final BlockingQueue<PooledConnection> idleReaders;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong totalAcquireWaitNanos = new AtomicLong();
+    private final AtomicLong maxAcquireWaitNanos = new AtomicLong();
+
+    ConnectionPool(String url, int readerCount) throws SQLException {
+        // The writer is opened first so the WAL and shared-memory files exist for the readers
+        Connection writeConnection = DriverManager.getConnection(url);
+        try (Statement stmt = writeConnection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("PRAGMA synchronous=NORMAL");
+        }
+        applyConnectionPragmas(writeConnection);
+        writer = new PooledConnection("writer", writeConnection, this);
+
+        idleReaders = new ArrayBlockingQueue<>(readerCount);
+        SQLiteConfig readOnly = new SQLiteConfig();
+        readOnly.setReadOnly(true);
+        for (int i = 1; i <= readerCount; i++) {
+            Connection readConnection = readOnly.createConnection(url);
+            applyConnectionPragmas(readConnection);
+            PooledConnection reader = new PooledConnection("reader-" + i, readConnection, this);
+            readers.add(reader);
+            idleReaders.add(reader);
+        }
+    }
+
+    private static void applyConnectionPragmas(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA cache_size=10000");
+            stmt.execute("PRAGMA temp_store=memory");
+            stmt.execute("PRAGMA mmap_size=268435456"); // 256MB
+        }
+    }
+
+    /** Borrows a read-only connection, waiting if all of them are in use. */
+    PooledConnection acquireReader() throws SQLException {
+        long waitStart = System.nanoTime();
+        try {
+            PooledConnection reader = idleReaders.take();
+            recordAcquire(System.nanoTime() - waitStart);
+            return reader;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+    }
+
+    /** Takes exclusive use of the writer connection until the returned handle is closed. */
+    PooledConnection acquireWriter() {
+        long waitStart = System.nanoTime();
+        writerLock.lock();
+        recordAcquire(System.nanoTime() - waitStart);
+        return writer;
+    }
+
+    void release(PooledConnection connection) {
+        if (connection == writer) {
+            writerLock.unlock();
+        } else {
+            idleReaders.offer(connection);
+        }
+    }
+
+    private void recordAcquire(long waitNanos) {
+        acquireCount.incrementAndGet();
+        totalAcquireWaitNanos.addAndGet(waitNanos);
+        maxAcquireWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    PoolStats stats() {
+        Map<String, Long> queryCounts = new LinkedHashMap<>();
+        long cacheHits = writer.getCacheHits();
+        long cacheMisses = writer.getCacheMisses();
+        queryCounts.put(writer.getName(), writer.getQueryCount());
+        for (PooledConnection reader : readers) {
+            queryCounts.put(reader.getName(), reader.getQueryCount());
+            cacheHits += reader.getCacheHits();
+            cacheMisses += reader.getCacheMisses();
+        }
+        return new PoolStats(readers.size(), idleReaders.size(), acquireCount.get(),
+                totalAcquireWaitNanos.get(), maxAcquireWaitNanos.get(), queryCounts,
+                cacheHits, cacheMisses);
+    }
+
+    void close() {
+        for (PooledConnection reader : readers) {
+            try {
+                reader.closePhysical();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        writerLock.lock();
+        try {
+            writer.closePhysical();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+}
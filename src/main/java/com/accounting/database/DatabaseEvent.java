@@ -0,0 +1,57 @@
+package com.accounting.database;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one {@link DatabaseManager} query or update.
+ *
+ * The duration covers the whole call, including the wait for a pooled connection; for queued writes
+ * it runs from submission to commit. Without an active recording {@code begin()} and
+ * {@link #finish} do nothing; an event that stays local to its method can then be scalar-replaced,
+ * but one captured by a completion callback cannot, so queued writes use {@link #startedIfEnabled}.
+ */
+@Name("com.accounting.Database")
+@Label("Database Operation")
+@Category({"Accounting", "Database"})
+@Description("A DatabaseManager query or update")
+@StackTrace(false)
+final class DatabaseEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Table")
+    String table;
+
+    @Label("Rows")
+    long rows;
+
+    private static final EventType TYPE = EventType.getEventType(DatabaseEvent.class);
+
+    /** A new event with its start time taken now. */
+    static DatabaseEvent started() {
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Like {@link #started}, but null (and nothing allocated) unless a recording has this event enabled. */
+    static DatabaseEvent startedIfEnabled() {
+        return TYPE.isEnabled() ? started() : null;
+    }
+
+    void finish(String operation, String table, long rows) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.table = table;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
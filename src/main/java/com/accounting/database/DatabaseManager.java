@@ -1,188 +1,237 @@
 package com.accounting.database;
 
 import com.accounting.model.Employee;
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.SearchResult;
 import com.accounting.model.Transaction;
+import com.accounting.model.TransactionFilter;
 import com.accounting.model.TransactionView;
+import com.accounting.util.Counter;
+import com.accounting.util.LatencyTimer;
+import com.accounting.util.Log;
+import com.accounting.util.MetricsRegistry;
+import com.accounting.util.Timestamps;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private Connection connection;
-    private static final String DB_URL = "jdbc:sqlite:accounting.db";
+    private ConnectionPool pool;
+    private WriteQueue writeQueue;
+
+    // Told about every committed write; see ChangeEvent for what is reported
+    private final ChangeBus changes = new ChangeBus();
+
+    // id -> name of every employee, kept current on commit so transaction queries need no JOIN
+    private final Map<Integer, String> employeeNames = new ConcurrentHashMap<>();
+
+    // key -> value of the settings table, loaded on first use and written through on update
+    private final Map<String, String> settings = new ConcurrentHashMap<>();
+    private volatile boolean settingsLoaded;
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    // -Daccounting.db=<file> points the app (or a benchmark) at another database file
+    private static final String DB_URL = "jdbc:sqlite:" + System.getProperty("accounting.db", "accounting.db");
+
+    // Per-table SQL is formatted once so the statement cache sees identical text on every call
+    private static final Map<String, String> INSERT_SQL = perTableType(
+            "INSERT INTO %s (employee_id, amount_cents, occurred_at, notes) VALUES (?, ?, ?, ?)");
+    private static final Map<String, String> DELETE_SQL = perTableType(
+            "DELETE FROM %s WHERE id = ? RETURNING employee_id, amount_cents, occurred_at");
+    private static final Map<String, String> RANGE_SQL = perTableType("""
+            SELECT id, employee_id, amount_cents, occurred_at, notes
+            FROM %s
+            WHERE occurred_at BETWEEN ? AND ?
+            ORDER BY occurred_at DESC, id DESC
+            """);
+    private static final Map<String, String> PAGE_SQL = perTableType("""
+            SELECT id, employee_id, amount_cents, occurred_at, notes
+            FROM %s
+            WHERE occurred_at >= ? AND (occurred_at, id) < (?, ?)
+            ORDER BY occurred_at DESC, id DESC
+            LIMIT ?
+            """);
+    private static final Map<String, String> FILTERED_PAGE_SQL = perTableType("""
+            SELECT id, employee_id, amount_cents, occurred_at, notes
+            FROM %s
+            WHERE occurred_at >= ? AND (occurred_at, id) < (?, ?)
+              AND (? = 0 OR employee_id = ?) AND amount_cents BETWEEN ? AND ?
+            ORDER BY occurred_at DESC, id DESC
+            LIMIT ?
+            """);
+    private static final Map<String, String> COLUMNS_SQL = perTableType("""
+            SELECT id, employee_id, amount_cents, occurred_at
+            FROM %s
+            WHERE occurred_at BETWEEN ? AND ?
+            ORDER BY occurred_at DESC, id DESC
+            """);
+    private static final Map<String, String> NOTES_SQL = perTableType(
+            "SELECT id, notes FROM %s WHERE id IN (SELECT value FROM json_each(?))");
+
+    private static final String SUMMARY_SQL = """
+            SELECT type, SUM(total_cents) AS total, SUM(row_count) AS cnt
+            FROM daily_totals
+            WHERE epoch_day BETWEEN ? AND ?
+            GROUP BY type
+            """;
+    private static final String EMPLOYEE_SUMMARY_SQL = """
+            SELECT type, SUM(total_cents) AS total, SUM(row_count) AS cnt
+            FROM daily_totals
+            WHERE epoch_day BETWEEN ? AND ? AND employee_id = ?
+            GROUP BY type
+            """;
+    // An amount band cannot be answered from the rollup
+    private static final String AMOUNT_SUMMARY_SQL = String.join("UNION ALL\n", perTableType("""
+            SELECT '%1$s' AS type, SUM(amount_cents) AS total, COUNT(*) AS cnt
+            FROM %1$s
+            WHERE occurred_at BETWEEN ? AND ? AND (? = 0 OR employee_id = ?) AND amount_cents BETWEEN ? AND ?
+            """).values());
+
+    private static final String SEARCH_SQL = searchSql();
+
+    private static Map<String, String> perTableType(String template) {
+        return Map.of(
+                "sales", String.format(template, "sales"),
+                "expenses", String.format(template, "expenses"),
+                "profits", String.format(template, "profits"));
+    }
 
-    private DatabaseManager() {
-        long startTime = System.currentTimeMillis();
-        System.out.println("  - DatabaseManager: Creating database connection...");
+    /**
+     * Notes matches from all three tables in one ranked list, best first. The FTS rowid encodes the
+     * table and the row id, and the hits are filtered to the date range on the base tables.
+     */
+    private static String searchSql() {
+        List<String> branches = new ArrayList<>();
+        SchemaMigrator.NOTES_TYPE_CODES.forEach((type, code) -> branches.add(String.format("""
+                SELECT '%1$s' AS type, t.id, t.employee_id, t.amount_cents, t.occurred_at, t.notes, h.rank
+                FROM hits h JOIN %1$s t ON t.id = h.rowid >> 2
+                WHERE h.rowid & 3 = %2$d AND t.occurred_at BETWEEN ? AND ?
+                """, type, code)));
+        return "WITH hits AS MATERIALIZED (SELECT rowid, rank FROM notes_fts WHERE notes_fts MATCH ?)\n"
+                + String.join("UNION ALL\n", branches)
+                + "ORDER BY rank, occurred_at DESC, id DESC\nLIMIT ? OFFSET ?";
+    }
+
+    // Latency per operation; names are what the diagnostics page lists
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private static final LatencyTimer EMPLOYEES_TIMER = metrics.timer("db.getAllEmployees");
+    private static final LatencyTimer SAVE_EMPLOYEE_TIMER = metrics.timer("db.saveEmployee");
+    private static final LatencyTimer UPDATE_EMPLOYEE_TIMER = metrics.timer("db.updateEmployee");
+    private static final LatencyTimer DELETE_EMPLOYEE_TIMER = metrics.timer("db.deleteEmployee");
+    private static final LatencyTimer SAVE_TRANSACTION_TIMER = metrics.timer("db.saveTransaction");
+    private static final LatencyTimer DELETE_TRANSACTION_TIMER = metrics.timer("db.deleteTransaction");
+    private static final LatencyTimer GET_OR_CREATE_EMPLOYEES_TIMER = metrics.timer("db.getOrCreateEmployees");
+    private static final LatencyTimer BULK_INSERT_TIMER = metrics.timer("db.saveTransactions");
+    private static final Map<String, LatencyTimer> STREAM_TIMERS = timerPerTableType("db.streamTransactions.%s");
+    private static final Map<String, LatencyTimer> PAGE_TIMERS = timerPerTableType("db.transactionPage.%s");
+    private static final LatencyTimer SUMMARY_TIMER = metrics.timer("db.periodSummary");
+    private static final LatencyTimer SEARCH_TIMER = metrics.timer("db.searchNotes");
+    private static final LatencyTimer LOAD_COLUMNS_TIMER = metrics.timer("db.loadColumns");
+    private static final LatencyTimer FILL_NOTES_TIMER = metrics.timer("db.fillNotes");
+    private static final LatencyTimer VERIFY_TOTALS_TIMER = metrics.timer("db.verifyDailyTotals");
+    private static final LatencyTimer REBUILD_TOTALS_TIMER = metrics.timer("db.rebuildDailyTotals");
+    private static final LatencyTimer UPDATE_SETTING_TIMER = metrics.timer("db.updateSetting");
+    private static final Counter ROWS_READ = metrics.counter("db.rowsRead");
+    private static final Counter ROWS_WRITTEN = metrics.counter("db.rowsWritten");
+
+    private static Map<String, LatencyTimer> timerPerTableType(String nameTemplate) {
+        return Map.of(
+                "sales", metrics.timer(String.format(nameTemplate, "sales")),
+                "expenses", metrics.timer(String.format(nameTemplate, "expenses")),
+                "profits", metrics.timer(String.format(nameTemplate, "profits")));
+    }
+
+    /** Read-only connections kept open next to the single writer. */
+    public static final int READER_POOL_SIZE = 4;
 
+    private DatabaseManager() {
         try {
-            // Add SQLite performance optimizations
-            connection = DriverManager.getConnection(DB_URL + "?journal_mode=WAL&synchronous=NORMAL&cache_size=10000&temp_store=memory");
-
-            // Set additional performance pragmas
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute("PRAGMA journal_mode=WAL");
-                stmt.execute("PRAGMA synchronous=NORMAL");
-                stmt.execute("PRAGMA cache_size=10000");
-                stmt.execute("PRAGMA temp_store=memory");
-                stmt.execute("PRAGMA mmap_size=268435456"); // 256MB
-            }
+            // One writer plus READER_POOL_SIZE read-only connections (WAL allows concurrent readers)
+            long start = System.nanoTime();
+            pool = new ConnectionPool(DB_URL, READER_POOL_SIZE);
+            metrics.timer("db.openConnections").recordSince(start);
 
-            System.out.println("  - DatabaseManager: Connection established in " +
-                    (System.currentTimeMillis() - startTime) + "ms");
+            // Single-row inserts, updates and deletes are group-committed by one writer thread
+            writeQueue = new WriteQueue(pool);
 
         } catch (SQLException e) {
-            System.err.println("  - DatabaseManager: Connection failed in " +
-                    (System.currentTimeMillis() - startTime) + "ms");
+            System.err.println("DatabaseManager: connection failed");
             e.printStackTrace();
         }
     }
 
-    public static DatabaseManager getInstance() {
-        long startTime = System.currentTimeMillis();
-        System.out.println("  - DatabaseManager: Getting instance...");
-
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
-            System.out.println("  - DatabaseManager: Creating new instance...");
             instance = new DatabaseManager();
-        } else {
-            System.out.println("  - DatabaseManager: Using existing instance");
         }
-
-        System.out.println("  - DatabaseManager: getInstance completed in " +
-                (System.currentTimeMillis() - startTime) + "ms");
         return instance;
     }
 
     public void initializeDatabase() {
-        long startTime = System.currentTimeMillis();
-        System.out.println("  - DatabaseManager: Starting database initialization...");
-
-        createTables();
-
-        System.out.println("  - DatabaseManager: Database initialization completed in " +
-                (System.currentTimeMillis() - startTime) + "ms");
-    }
-
-    private void createTables() {
-        long startTime = System.currentTimeMillis();
-        System.out.println("  - DatabaseManager: Creating tables...");
-
-        String[] createTableQueries = {
-                """
-            CREATE TABLE IF NOT EXISTS employees (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL UNIQUE
-            )
-            """,
-                """
-            CREATE TABLE IF NOT EXISTS sales (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                employee_id INTEGER NOT NULL,
-                amount REAL NOT NULL,
-                date TEXT NOT NULL,
-                time TEXT NOT NULL,
-                notes TEXT,
-                FOREIGN KEY (employee_id) REFERENCES employees (id)
-            )
-            """,
-                """
-            CREATE TABLE IF NOT EXISTS expenses (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                employee_id INTEGER NOT NULL,
-                amount REAL NOT NULL,
-                date TEXT NOT NULL,
-                time TEXT NOT NULL,
-                notes TEXT,
-                FOREIGN KEY (employee_id) REFERENCES employees (id)
-            )
-            """,
-                """
-            CREATE TABLE IF NOT EXISTS profits (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                employee_id INTEGER NOT NULL,
-                amount REAL NOT NULL,
-                date TEXT NOT NULL,
-                time TEXT NOT NULL,
-                notes TEXT,
-                FOREIGN KEY (employee_id) REFERENCES employees (id)
-            )
-            """,
-                """
-            CREATE TABLE IF NOT EXISTS settings (
-                key TEXT PRIMARY KEY,
-                value TEXT NOT NULL
-            )
-            """
-        };
+        long start = System.nanoTime();
 
         try {
-            // Use a single transaction for all table creation
-            connection.setAutoCommit(false);
-
-            long tableCreationStart = System.currentTimeMillis();
-
-            for (int i = 0; i < createTableQueries.length; i++) {
-                long tableStart = System.currentTimeMillis();
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(createTableQueries[i]);
-                }
-                System.out.println("  - DatabaseManager: Table " + (i+1) + " created in " +
-                        (System.currentTimeMillis() - tableStart) + "ms");
-            }
-
-            System.out.println("  - DatabaseManager: All tables created in " +
-                    (System.currentTimeMillis() - tableCreationStart) + "ms");
+            migrateSchema();
+            loadEmployeeNames();
+            loadSettings();
+            ready.complete(null);
+        } catch (RuntimeException e) {
+            ready.completeExceptionally(e);
+            throw e;
+        }
 
-            // Insert default settings
-            long settingsStart = System.currentTimeMillis();
-            insertDefaultSettings();
-            System.out.println("  - DatabaseManager: Default settings inserted in " +
-                    (System.currentTimeMillis() - settingsStart) + "ms");
+        metrics.timer("db.initialize").recordSince(start);
+    }
 
-            connection.commit();
-            connection.setAutoCommit(true);
+    /** Completes once {@link #initializeDatabase()} has migrated the schema and filled the caches. */
+    public CompletableFuture<Void> whenReady() {
+        return ready;
+    }
 
+    private void migrateSchema() {
+        try (PooledConnection conn = pool.acquireWriter()) {
+            new SchemaMigrator().migrate(conn.getConnection());
         } catch (SQLException e) {
-            System.err.println("  - DatabaseManager: Error creating tables in " +
-                    (System.currentTimeMillis() - startTime) + "ms");
-            try {
-                connection.rollback();
-                connection.setAutoCommit(true);
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
-            }
-            e.printStackTrace();
+            // Steps already committed stay applied; the failed one is retried on next start.
+            // Running on the older schema would make every query fail, so startup stops here.
+            throw new IllegalStateException("Schema migration failed", e);
         }
-
-        System.out.println("  - DatabaseManager: createTables completed in " +
-                (System.currentTimeMillis() - startTime) + "ms");
     }
 
-    private void insertDefaultSettings() {
-        String insertSettings = """
-            INSERT OR IGNORE INTO settings (key, value) VALUES 
-            ('currency', 'Kz'),
-            ('exchange_rate', '1.0')
-        """;
-
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(insertSettings);
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private void loadEmployeeNames() {
+        for (Employee employee : getAllEmployees()) {
+            employeeNames.put(employee.getId(), employee.getName());
         }
     }
 
     // Employee operations
+    /** Cached id -> name map of all employees (read-only view). */
+    public Map<Integer, String> getEmployeeNames() {
+        return Collections.unmodifiableMap(employeeNames);
+    }
+
+    public String getEmployeeName(int employeeId) {
+        return employeeNames.getOrDefault(employeeId, "");
+    }
+
     public List<Employee> getAllEmployees() {
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
         List<Employee> employees = new ArrayList<>();
         String query = "SELECT id, name FROM employees ORDER BY name";
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.prepareCached(query).executeQuery()) {
 
             while (rs.next()) {
                 Employee employee = new Employee();
@@ -194,191 +243,781 @@ public class DatabaseManager {
             e.printStackTrace();
         }
 
+        EMPLOYEES_TIMER.recordSince(start);
+        event.finish("getAllEmployees", "employees", employees.size());
         return employees;
     }
 
     public boolean saveEmployee(Employee employee) {
-        String query = "INSERT INTO employees (name) VALUES (?)";
+        return enqueueSaveEmployee(employee).join();
+    }
+
+    public CompletableFuture<Boolean> enqueueSaveEmployee(Employee employee) {
+        String query = "INSERT INTO employees (name) VALUES (?) RETURNING id";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        return enqueueWrite("saveEmployee", "employees", SAVE_EMPLOYEE_TIMER, conn -> {
+            PreparedStatement pstmt = conn.prepareCached(query);
             pstmt.setString(1, employee.getName());
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                employee.setId(rs.getInt("id"));
+                return true;
+            }
+        }).thenApply(success -> {
+            if (success) {
+                employeeNames.put(employee.getId(), employee.getName());
+                changes.publish(new ChangeEvent.EmployeeAdded(employee.getId(), employee.getName()));
+            }
+            return success;
+        });
     }
 
     public boolean updateEmployee(Employee employee) {
+        return enqueueUpdateEmployee(employee).join();
+    }
+
+    public CompletableFuture<Boolean> enqueueUpdateEmployee(Employee employee) {
         String query = "UPDATE employees SET name = ? WHERE id = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        return enqueueWrite("updateEmployee", "employees", UPDATE_EMPLOYEE_TIMER, conn -> {
+            PreparedStatement pstmt = conn.prepareCached(query);
             pstmt.setString(1, employee.getName());
             pstmt.setInt(2, employee.getId());
             return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
+        }).thenApply(success -> {
+            if (success) {
+                employeeNames.put(employee.getId(), employee.getName());
+                changes.publish(new ChangeEvent.EmployeeRenamed(employee.getId(), employee.getName()));
+            }
+            return success;
+        });
     }
 
     public boolean deleteEmployee(int employeeId) {
-        try {
-            connection.setAutoCommit(false);
+        return enqueueDeleteEmployee(employeeId).join();
+    }
 
-            // Delete from all transaction tables
-            String[] deleteQueries = {
-                    "DELETE FROM sales WHERE employee_id = ?",
-                    "DELETE FROM expenses WHERE employee_id = ?",
-                    "DELETE FROM profits WHERE employee_id = ?",
-                    "DELETE FROM employees WHERE id = ?"
-            };
+    public CompletableFuture<Boolean> enqueueDeleteEmployee(int employeeId) {
+        // Delete from all transaction tables; the command's savepoint makes the cascade atomic
+        String[] deleteQueries = {
+                "DELETE FROM sales WHERE employee_id = ?",
+                "DELETE FROM expenses WHERE employee_id = ?",
+                "DELETE FROM profits WHERE employee_id = ?",
+                "DELETE FROM employees WHERE id = ?"
+        };
 
+        return enqueueWrite("deleteEmployee", "employees", DELETE_EMPLOYEE_TIMER, conn -> {
             for (String query : deleteQueries) {
-                try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                    pstmt.setInt(1, employeeId);
-                    pstmt.executeUpdate();
-                }
+                PreparedStatement pstmt = conn.prepareCached(query);
+                pstmt.setInt(1, employeeId);
+                pstmt.executeUpdate();
             }
-
-            connection.commit();
             return true;
+        }).thenApply(success -> {
+            if (success) {
+                employeeNames.remove(employeeId);
+                changes.publish(new ChangeEvent.EmployeeDeleted(employeeId));
+            }
+            return success;
+        });
+    }
 
-        } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
+    // Transaction operations
+    public boolean saveTransaction(String type, Transaction transaction) {
+        return enqueueSaveTransaction(type, transaction).join();
+    }
+
+    public CompletableFuture<Boolean> enqueueSaveTransaction(String type, Transaction transaction) {
+        if (!isValidTableType(type)) {
+            System.err.println("Invalid table type: " + type);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String query = INSERT_SQL.get(type);
+
+        return enqueueWrite("saveTransaction", type, SAVE_TRANSACTION_TIMER, conn -> {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            pstmt.setInt(1, transaction.getEmployeeId());
+            pstmt.setLong(2, transaction.getAmountCents());
+            pstmt.setLong(3, transaction.getOccurredAt());
+            pstmt.setString(4, transaction.getNotes());
+            return pstmt.executeUpdate() > 0;
+        }).thenApply(success -> {
+            if (success) {
+                changes.publish(ChangeEvent.TransactionsInserted.single(
+                        type, transaction.getAmountCents(), transaction.getOccurredAt()));
+            }
+            return success;
+        });
+    }
+
+    public boolean deleteTransaction(String type, int transactionId) {
+        return enqueueDeleteTransaction(type, transactionId).join();
+    }
+
+    public CompletableFuture<Boolean> enqueueDeleteTransaction(String type, int transactionId) {
+        if (!isValidTableType(type)) {
+            System.err.println("Invalid table type: " + type);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String query = DELETE_SQL.get(type);
+
+        // Filled by the command from the deleted row, read once the delete is committed
+        ChangeEvent[] deleted = new ChangeEvent[1];
+        return enqueueWrite("deleteTransaction", type, DELETE_TRANSACTION_TIMER, conn -> {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            pstmt.setInt(1, transactionId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                deleted[0] = new ChangeEvent.TransactionDeleted(type, transactionId,
+                        rs.getInt("employee_id"), rs.getLong("amount_cents"), rs.getLong("occurred_at"));
+                return true;
             }
+        }).thenApply(success -> {
+            if (success) {
+                changes.publish(deleted[0]);
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Queues a write on the single writer thread. It is committed together with whatever other
+     * writes arrive in the same short window; a failure is logged and reported as {@code false}.
+     */
+    private CompletableFuture<Boolean> enqueueWrite(String operation, String table, LatencyTimer timer,
+                                                    WriteQueue.Command<Boolean> command) {
+        // Timed from submission, so the queue wait and group commit are part of the latency
+        long start = System.nanoTime();
+        // Captured by the callback below, so only created while a recording wants it
+        DatabaseEvent event = DatabaseEvent.startedIfEnabled();
+        return writeQueue.submit(command).whenComplete((success, e) -> {
+            timer.recordSince(start);
+            boolean written = Boolean.TRUE.equals(success);
+            if (written) {
+                ROWS_WRITTEN.increment();
+            }
+            if (event != null) {
+                event.finish(operation, table, written ? 1 : 0);
+            }
+        }).exceptionally(e -> {
             e.printStackTrace();
             return false;
-        } finally {
+        });
+    }
+
+    private boolean isValidTableType(String type) {
+        return INSERT_SQL.containsKey(type);
+    }
+
+    // Bulk import operations
+    /**
+     * Looks up employees by name, inserting the names that do not exist yet, in one transaction.
+     *
+     * @return id of every requested name, or an empty map if the transaction failed
+     */
+    public Map<String, Integer> getOrCreateEmployees(Collection<String> names) {
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> added = new ArrayList<>();
+
+        try (PooledConnection conn = pool.acquireWriter()) {
+            Connection connection = conn.getConnection();
             try {
-                connection.setAutoCommit(true);
+                connection.setAutoCommit(false);
+
+                PreparedStatement insert = conn.prepareCached("INSERT OR IGNORE INTO employees (name) VALUES (?)");
+                PreparedStatement select = conn.prepareCached("SELECT id FROM employees WHERE name = ?");
+                for (String name : names) {
+                    insert.setString(1, name);
+                    if (insert.executeUpdate() > 0) {
+                        added.add(name);
+                    }
+
+                    select.setString(1, name);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) {
+                            ids.put(name, rs.getInt("id"));
+                        }
+                    }
+                }
+
+                connection.commit();
+                ids.forEach((name, id) -> employeeNames.put(id, name));
+
+                List<ChangeEvent> events = new ArrayList<>();
+                for (String name : added) {
+                    events.add(new ChangeEvent.EmployeeAdded(ids.get(name), name));
+                }
+                changes.publish(events);
+                return ids;
+
             } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackEx) {
+                    rollbackEx.printStackTrace();
+                }
                 e.printStackTrace();
+                return new HashMap<>();
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                GET_OR_CREATE_EMPLOYEES_TIMER.recordSince(start);
+                event.finish("getOrCreateEmployees", "employees", names.size());
             }
         }
     }
 
-    // Transaction operations
-    public boolean saveTransaction(String type, Transaction transaction) {
-        String query = String.format(
-                "INSERT INTO %s (employee_id, amount, date, time, notes) VALUES (?, ?, ?, ?, ?)",
-                type);
+    /**
+     * Inserts many transactions in a single SQL transaction, sending each table's rows as one JDBC batch.
+     * The writer is held only for this call, so other saves can run between consecutive batches.
+     *
+     * @param byType rows to insert keyed by table type ("sales", "expenses" or "profits")
+     * @return number of rows inserted, or -1 if the batch failed and was rolled back
+     */
+    public int saveTransactions(Map<String, List<Transaction>> byType) {
+        int rowCount = 0;
+        for (Map.Entry<String, List<Transaction>> entry : byType.entrySet()) {
+            if (!isValidTableType(entry.getKey())) {
+                System.err.println("Invalid table type: " + entry.getKey());
+                return -1;
+            }
+            rowCount += entry.getValue().size();
+        }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, transaction.getEmployeeId());
-            pstmt.setDouble(2, transaction.getAmount());
-            pstmt.setString(3, transaction.getDate().toString());
-            pstmt.setString(4, transaction.getTime());
-            pstmt.setString(5, transaction.getNotes());
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            Connection connection = conn.getConnection();
+            try {
+                connection.setAutoCommit(false);
+
+                int inserted = 0;
+                List<ChangeEvent> events = new ArrayList<>();
+                for (Map.Entry<String, List<Transaction>> entry : byType.entrySet()) {
+                    if (entry.getValue().isEmpty()) {
+                        continue;
+                    }
+
+                    PreparedStatement pstmt = conn.prepareCached(INSERT_SQL.get(entry.getKey()));
+                    long totalCents = 0;
+                    long firstDay = Long.MAX_VALUE;
+                    long lastDay = Long.MIN_VALUE;
+                    for (Transaction transaction : entry.getValue()) {
+                        pstmt.setInt(1, transaction.getEmployeeId());
+                        pstmt.setLong(2, transaction.getAmountCents());
+                        pstmt.setLong(3, transaction.getOccurredAt());
+                        pstmt.setString(4, transaction.getNotes());
+                        pstmt.addBatch();
+
+                        long day = Timestamps.epochDay(transaction.getOccurredAt());
+                        totalCents += transaction.getAmountCents();
+                        firstDay = Math.min(firstDay, day);
+                        lastDay = Math.max(lastDay, day);
+                    }
+                    pstmt.executeBatch();
+                    inserted += entry.getValue().size();
+                    // One event per table for the whole batch
+                    events.add(new ChangeEvent.TransactionsInserted(entry.getKey(), entry.getValue().size(),
+                            totalCents, firstDay, lastDay));
+                }
+
+                connection.commit();
+                ROWS_WRITTEN.add(inserted);
+                changes.publish(events);
+                return inserted;
+
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackEx) {
+                    rollbackEx.printStackTrace();
+                }
+                e.printStackTrace();
+                return -1;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                BULK_INSERT_TIMER.recordSince(start);
+                event.finish("saveTransactions", String.join(",", byType.keySet()), rowCount);
+            }
         }
     }
 
-    public boolean deleteTransaction(String type, int transactionId) {
+    public List<TransactionView> getTransactionViews(String type, LocalDate fromDate, LocalDate toDate) {
+        List<TransactionView> transactions = new ArrayList<>();
+        streamTransactions(type, fromDate, toDate, transactions::add);
+        return transactions;
+    }
+
+    /** Rows fetched from SQLite per round trip while streaming. */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Streams every row of a date range, newest first, to {@code consumer} without building a list.
+     * Rows are pulled from the cursor {@value #STREAM_FETCH_SIZE} at a time, so heap use stays flat
+     * however large the range is. The read connection is held until the consumer has seen the last row;
+     * a consumer may stop early by throwing an unchecked exception, which is propagated.
+     *
+     * @return the number of rows delivered
+     * @throws IllegalStateException if the query fails, possibly after some rows were delivered
+     */
+    public long streamTransactions(String type, LocalDate fromDate, LocalDate toDate,
+                                   Consumer<TransactionView> consumer) {
         if (!isValidTableType(type)) {
             System.err.println("Invalid table type: " + type);
-            return false;
+            return 0;
         }
 
-        String query = String.format("DELETE FROM %s WHERE id = ?", type);
+        String query = RANGE_SQL.get(type);
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, transactionId);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        long delivered = 0;
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            pstmt.setLong(1, Timestamps.startOfDay(fromDate));
+            pstmt.setLong(2, Timestamps.endOfDay(toDate));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new TransactionView(
+                            rs.getInt("id"),
+                            getEmployeeName(rs.getInt("employee_id")),
+                            rs.getLong("amount_cents"),
+                            rs.getLong("occurred_at"),
+                            rs.getString("notes")));
+                    delivered++;
+                }
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            // The consumer has only part of the range; returning normally would pass it off as complete
+            throw new IllegalStateException("Streaming " + type + " failed after " + delivered + " rows", e);
+        } finally {
+            STREAM_TIMERS.get(type).recordSince(start);
+            ROWS_READ.add(delivered);
+            event.finish("streamTransactions", type, delivered);
         }
+        return delivered;
     }
 
-    private boolean isValidTableType(String type) {
-        return type.equals("sales") || type.equals("expenses") || type.equals("profits");
+    /**
+     * One page of a date range, newest first, using keyset pagination on (occurred_at, id).
+     *
+     * @param after the last row of the previous page, or null for the first page
+     * @param limit maximum number of rows to return
+     */
+    public List<TransactionView> getTransactionPage(String type, LocalDate fromDate, LocalDate toDate,
+                                                    TransactionView after, int limit) {
+        return getTransactionPage(type, fromDate, toDate, TransactionFilter.NONE, after, limit);
     }
 
-    public List<TransactionView> getTransactionViews(String type, LocalDate fromDate, LocalDate toDate) {
+    /** Like {@link #getTransactionPage(String, LocalDate, LocalDate, TransactionView, int)}, keeping only rows that pass {@code filter}. */
+    public List<TransactionView> getTransactionPage(String type, LocalDate fromDate, LocalDate toDate,
+                                                    TransactionFilter filter, TransactionView after, int limit) {
         List<TransactionView> transactions = new ArrayList<>();
-        String query = String.format("""
-            SELECT t.id, e.name as employee_name, t.amount, t.date, t.time, t.notes
-            FROM %s t
-            JOIN employees e ON t.employee_id = e.id
-            WHERE t.date BETWEEN ? AND ?
-            ORDER BY t.date DESC, t.time DESC
-        """, type);
-
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, fromDate.toString());
-            pstmt.setString(2, toDate.toString());
+        if (!isValidTableType(type)) {
+            System.err.println("Invalid table type: " + type);
+            return transactions;
+        }
+
+        String query = (filter.isEmpty() ? PAGE_SQL : FILTERED_PAGE_SQL).get(type);
+
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            pstmt.setLong(1, Timestamps.startOfDay(fromDate));
+            if (after == null) {
+                // (endOfDay + 1, 0) admits every row up to and including the last second of toDate
+                pstmt.setLong(2, Timestamps.endOfDay(toDate) + 1);
+                pstmt.setInt(3, 0);
+            } else {
+                pstmt.setLong(2, after.getOccurredAt());
+                pstmt.setInt(3, after.getId());
+            }
+            int index = 4;
+            if (!filter.isEmpty()) {
+                pstmt.setInt(index++, filter.getEmployeeId());
+                pstmt.setInt(index++, filter.getEmployeeId());
+                pstmt.setLong(index++, filter.getMinCents());
+                pstmt.setLong(index++, filter.getMaxCents());
+            }
+            pstmt.setInt(index, limit);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    TransactionView transaction = new TransactionView();
-                    transaction.setId(rs.getInt("id"));
-                    transaction.setEmployeeName(rs.getString("employee_name"));
-                    transaction.setAmount(rs.getDouble("amount"));
-                    transaction.setDate(LocalDate.parse(rs.getString("date")));
-                    transaction.setTime(rs.getString("time"));
-                    transaction.setNotes(rs.getString("notes"));
-                    transactions.add(transaction);
+                    transactions.add(new TransactionView(
+                            rs.getInt("id"),
+                            getEmployeeName(rs.getInt("employee_id")),
+                            rs.getLong("amount_cents"),
+                            rs.getLong("occurred_at"),
+                            rs.getString("notes")));
                 }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
 
+        PAGE_TIMERS.get(type).recordSince(start);
+        ROWS_READ.add(transactions.size());
+        event.finish("getTransactionPage", type, transactions.size());
         return transactions;
     }
 
-    // Settings operations
-    public String getSetting(String key) {
-        String query = "SELECT value FROM settings WHERE key = ?";
+    /**
+     * One page of the transactions whose notes contain every word of {@code query} (as word prefixes),
+     * across all three tables and within the date range, best match first.
+     *
+     * @param offset number of matches to skip, i.e. the position of the first one returned
+     */
+    public List<SearchResult> searchNotes(String query, LocalDate fromDate, LocalDate toDate, int offset, int limit) {
+        List<SearchResult> results = new ArrayList<>();
+        String match = SearchText.toMatchQuery(query);
+        if (match == null) {
+            return results;
+        }
+
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepareCached(SEARCH_SQL);
+            int index = 1;
+            pstmt.setString(index++, match);
+            for (int i = 0; i < SchemaMigrator.NOTES_TYPE_CODES.size(); i++) {
+                pstmt.setLong(index++, Timestamps.startOfDay(fromDate));
+                pstmt.setLong(index++, Timestamps.endOfDay(toDate));
+            }
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, key);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("value");
+                while (rs.next()) {
+                    results.add(new SearchResult(
+                            rs.getString("type"),
+                            rs.getInt("id"),
+                            getEmployeeName(rs.getInt("employee_id")),
+                            rs.getLong("amount_cents"),
+                            rs.getLong("occurred_at"),
+                            rs.getString("notes")));
                 }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
 
-        return null;
+        SEARCH_TIMER.recordSince(start);
+        ROWS_READ.add(results.size());
+        event.finish("searchNotes", "notes_fts", results.size());
+        return results;
     }
 
-    public boolean updateSetting(String key, String value) {
-        String query = "INSERT OR REPLACE INTO settings (key, value) VALUES (?, ?)";
+    /**
+     * Totals, row counts and net profit for a date range in one aggregate statement.
+     * Reads the daily_totals rollup, so the cost grows with the number of days, not transactions.
+     */
+    public PeriodSummary getPeriodSummary(LocalDate fromDate, LocalDate toDate) {
+        return getPeriodSummary(fromDate, toDate, TransactionFilter.NONE);
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, key);
-            pstmt.setString(2, value);
-            return pstmt.executeUpdate() > 0;
+    /**
+     * Totals of the rows that pass {@code filter}. An employee filter is still answered from the
+     * daily_totals rollup; an amount band has to aggregate the base tables over the range.
+     */
+    public PeriodSummary getPeriodSummary(LocalDate fromDate, LocalDate toDate, TransactionFilter filter) {
+        String query = filter.hasAmountBand() ? AMOUNT_SUMMARY_SQL
+                : filter.hasEmployee() ? EMPLOYEE_SUMMARY_SQL : SUMMARY_SQL;
+
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        Map<String, long[]> byType = new HashMap<>();
+
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            if (filter.hasAmountBand()) {
+                int index = 1;
+                for (int i = 0; i < 3; i++) {
+                    pstmt.setLong(index++, Timestamps.startOfDay(fromDate));
+                    pstmt.setLong(index++, Timestamps.endOfDay(toDate));
+                    pstmt.setInt(index++, filter.getEmployeeId());
+                    pstmt.setInt(index++, filter.getEmployeeId());
+                    pstmt.setLong(index++, filter.getMinCents());
+                    pstmt.setLong(index++, filter.getMaxCents());
+                }
+            } else {
+                pstmt.setLong(1, fromDate.toEpochDay());
+                pstmt.setLong(2, toDate.toEpochDay());
+                if (filter.hasEmployee()) {
+                    pstmt.setInt(3, filter.getEmployeeId());
+                }
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    byType.put(rs.getString("type"), new long[] {rs.getLong("total"), rs.getLong("cnt")});
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
         }
+
+        SUMMARY_TIMER.recordSince(start);
+        event.finish("getPeriodSummary", filter.hasAmountBand() ? "sales,expenses,profits" : "daily_totals", byType.size());
+        long[] none = {0, 0};
+        long[] sales = byType.getOrDefault("sales", none);
+        long[] expenses = byType.getOrDefault("expenses", none);
+        long[] profits = byType.getOrDefault("profits", none);
+        return new PeriodSummary(sales[0], sales[1], expenses[0], expenses[1], profits[0], profits[1]);
     }
 
-    public void closeConnection() {
-        long startTime = System.currentTimeMillis();
-        System.out.println("  - DatabaseManager: Closing connection...");
+    /**
+     * Every row of the range in columnar form, without notes, or null if the range holds more than
+     * {@code maxRows} transactions; callers then stay on the SQL queries above.
+     */
+    public ColumnarRange loadColumns(LocalDate fromDate, LocalDate toDate, int maxRows) {
+        // The rollup knows the row counts, so an oversized range costs one small query
+        PeriodSummary counts = getPeriodSummary(fromDate, toDate);
+        long rows = counts.getSalesCount() + counts.getExpensesCount() + counts.getProfitsCount();
+        if (rows > maxRows) {
+            return null;
+        }
 
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        Map<Integer, Integer> employeeIndexes = new HashMap<>();
+        List<Integer> employeeIds = new ArrayList<>();
+        Map<String, ColumnarRange.Column> columns = new HashMap<>();
+
+        try (PooledConnection conn = pool.acquireReader()) {
+            for (String type : List.of("sales", "expenses", "profits")) {
+                ColumnarRange.Column column = new ColumnarRange.Column((int) counts.getCount(type));
+                PreparedStatement pstmt = conn.prepareCached(COLUMNS_SQL.get(type));
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+                pstmt.setLong(1, Timestamps.startOfDay(fromDate));
+                pstmt.setLong(2, Timestamps.endOfDay(toDate));
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int employeeIndex = employeeIndexes.computeIfAbsent(rs.getInt(2), id -> {
+                            employeeIds.add(id);
+                            return employeeIds.size() - 1;
+                        });
+                        column.add(rs.getInt(1), rs.getLong(3), rs.getLong(4), employeeIndex);
+                    }
+                }
+                column.trim();
+                columns.put(type, column);
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
         }
 
-        System.out.println("  - DatabaseManager: Connection closed in " +
-                (System.currentTimeMillis() - startTime) + "ms");
+        ColumnarRange range = new ColumnarRange(this, fromDate, toDate,
+                employeeIds.stream().mapToInt(Integer::intValue).toArray(), columns);
+        LOAD_COLUMNS_TIMER.recordSince(start);
+        ROWS_READ.add(range.size());
+        event.finish("loadColumns", "sales,expenses,profits", range.size());
+        return range;
+    }
+
+    /** Loads the notes of {@code rows} (all of one table type) in one query and sets them on the rows. */
+    public List<TransactionView> fillNotes(String type, List<TransactionView> rows) {
+        if (!isValidTableType(type)) {
+            System.err.println("Invalid table type: " + type);
+            return rows;
+        }
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        Map<Integer, TransactionView> byId = new HashMap<>();
+        StringBuilder ids = new StringBuilder("[");
+        for (TransactionView row : rows) {
+            byId.put(row.getId(), row);
+            ids.append(ids.length() > 1 ? "," : "").append(row.getId());
+        }
+        ids.append(']');
+
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepareCached(NOTES_SQL.get(type));
+            pstmt.setString(1, ids.toString());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    byId.get(rs.getInt(1)).setNotes(rs.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        FILL_NOTES_TIMER.recordSince(start);
+        event.finish("fillNotes", type, rows.size());
+        return rows;
+    }
+
+    // Rollup maintenance
+    /**
+     * Compares daily_totals with a fresh aggregate of the base tables.
+     *
+     * @return true if every (day, type, employee) bucket matches
+     * @throws IllegalStateException if the comparison cannot be run; that says nothing about the totals
+     */
+    public boolean verifyDailyTotals() {
+        String query = """
+            WITH expected AS (
+                SELECT occurred_at / 86400 AS epoch_day, 'sales' AS type, employee_id,
+                       SUM(amount_cents) AS total_cents, COUNT(*) AS row_count
+                FROM sales GROUP BY 1, 3
+                UNION ALL
+                SELECT occurred_at / 86400, 'expenses', employee_id, SUM(amount_cents), COUNT(*)
+                FROM expenses GROUP BY 1, 3
+                UNION ALL
+                SELECT occurred_at / 86400, 'profits', employee_id, SUM(amount_cents), COUNT(*)
+                FROM profits GROUP BY 1, 3
+            ),
+            actual AS (
+                SELECT epoch_day, type, employee_id, total_cents, row_count FROM daily_totals
+            )
+            SELECT (SELECT COUNT(*) FROM (SELECT * FROM expected EXCEPT SELECT * FROM actual))
+                 + (SELECT COUNT(*) FROM (SELECT * FROM actual EXCEPT SELECT * FROM expected))
+        """;
+
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.started();
+        try (PooledConnection conn = pool.acquireReader();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            long mismatches = rs.next() ? rs.getLong(1) : 0;
+            if (mismatches > 0) {
+                System.err.println("DatabaseManager: daily_totals has " + mismatches + " mismatched bucket(s)");
+            }
+            return mismatches == 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not verify daily_totals", e);
+        } finally {
+            VERIFY_TOTALS_TIMER.recordSince(start);
+            event.finish("verifyDailyTotals", "daily_totals", 0);
+        }
+    }
+
+    /** Discards and recomputes daily_totals from the base tables in one transaction. */
+    public boolean rebuildDailyTotals() {
+        return enqueueRebuildDailyTotals().join();
+    }
+
+    public CompletableFuture<Boolean> enqueueRebuildDailyTotals() {
+        return enqueueWrite("rebuildDailyTotals", "daily_totals", REBUILD_TOTALS_TIMER, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM daily_totals");
+                for (String sql : SchemaMigrator.DAILY_TOTALS_BACKFILL) {
+                    stmt.execute(sql);
+                }
+            }
+            return true;
+        }).thenApply(success -> {
+            if (success) {
+                changes.publish(List.of(new ChangeEvent.TotalsRebuilt("sales"),
+                        new ChangeEvent.TotalsRebuilt("expenses"), new ChangeEvent.TotalsRebuilt("profits")));
+            }
+            return success;
+        });
+    }
+
+    // Settings operations
+    /** Cached value of a setting, or null if it is not set. The table is read once. */
+    public String getSetting(String key) {
+        if (!settingsLoaded) {
+            loadSettings();
+        }
+        return settings.get(key);
+    }
+
+    private synchronized void loadSettings() {
+        if (settingsLoaded) {
+            return;
+        }
+
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.prepareCached("SELECT key, value FROM settings").executeQuery()) {
+            while (rs.next()) {
+                settings.put(rs.getString("key"), rs.getString("value"));
+            }
+            settingsLoaded = true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public boolean updateSetting(String key, String value) {
+        return enqueueUpdateSetting(key, value).join();
+    }
+
+    public CompletableFuture<Boolean> enqueueUpdateSetting(String key, String value) {
+        return enqueueUpdateSettings(Map.of(key, value));
+    }
+
+    /** Writes all of {@code values} in one command, so they are committed (or rolled back) together. */
+    public CompletableFuture<Boolean> enqueueUpdateSettings(Map<String, String> values) {
+        String query = "INSERT OR REPLACE INTO settings (key, value) VALUES (?, ?)";
+
+        return enqueueWrite("updateSetting", "settings", UPDATE_SETTING_TIMER, conn -> {
+            PreparedStatement pstmt = conn.prepareCached(query);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                pstmt.setString(1, entry.getKey());
+                pstmt.setString(2, entry.getValue());
+                if (pstmt.executeUpdate() == 0) {
+                    // Rolls back the keys already written by this command
+                    throw new SQLException("Setting " + entry.getKey() + " was not written");
+                }
+            }
+            return true;
+        }).thenApply(success -> {
+            // Write-through: the cache only changes once the rows are committed
+            if (success) {
+                settings.putAll(values);
+                List<ChangeEvent> events = new ArrayList<>();
+                values.forEach((key, value) -> events.add(new ChangeEvent.SettingChanged(key, value)));
+                changes.publish(events);
+            }
+            return success;
+        });
+    }
+
+    /** Committed changes, for views and caches that update themselves instead of re-querying. */
+    public ChangeBus getChanges() {
+        return changes;
+    }
+
+    /** Pool size, acquire-wait times and per-connection query counts. */
+    public PoolStats getPoolStats() {
+        return pool.stats();
+    }
+
+    public void closeConnection() {
+        if (writeQueue != null) {
+            writeQueue.shutdown();
+        }
+        if (pool != null) {
+            Log.debug("DatabaseManager: pool stats at close: " + pool.stats());
+            pool.close();
+        }
     }
-}
\ No newline at end of file
+}
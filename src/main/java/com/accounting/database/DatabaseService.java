@@ -0,0 +1,184 @@
+package com.accounting.database;
+
+import com.accounting.model.Employee;
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.SearchResult;
+import com.accounting.model.Transaction;
+import com.accounting.model.TransactionFilter;
+import com.accounting.model.TransactionView;
+import javafx.application.Platform;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front for {@link DatabaseManager}.
+ *
+ * Reads are executed on a background worker and inserts, updates and deletes on the single
+ * group-committing writer thread, so the JavaFX application thread never waits on SQLite.
+ * Results are returned as {@link CompletableFuture}s; controllers continue on the FX thread
+ * with {@code thenAcceptAsync(..., DatabaseService.fxThread())}.
+ */
+public class DatabaseService {
+    private static DatabaseService instance;
+
+    private final DatabaseManager dbManager;
+    private final ExecutorService executor;
+    private final EmployeeDirectory employeeDirectory;
+
+    private DatabaseService() {
+        dbManager = DatabaseManager.getInstance();
+        employeeDirectory = new EmployeeDirectory(dbManager);
+
+        // One worker per read connection plus one for bulk writes that take the writer lock directly
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(DatabaseManager.READER_POOL_SIZE + 1, runnable -> {
+            Thread thread = new Thread(runnable, "db-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized DatabaseService getInstance() {
+        if (instance == null) instance = new DatabaseService();
+        return instance;
+    }
+
+    /** Executor that hands continuations back to the JavaFX application thread. */
+    public static Executor fxThread() {
+        return Platform::runLater;
+    }
+
+    /**
+     * Runs an arbitrary unit of work against the database on the background worker.
+     * Work submitted during startup waits until the schema is migrated.
+     */
+    public <T> CompletableFuture<T> submit(Function<DatabaseManager, T> work) {
+        return dbManager.whenReady().thenApplyAsync(ready -> work.apply(dbManager), executor);
+    }
+
+    /** Queues a write once the database is ready. */
+    private <T> CompletableFuture<T> enqueue(Supplier<CompletableFuture<T>> write) {
+        return dbManager.whenReady().thenCompose(ready -> write.get());
+    }
+
+    // Employee operations
+    /** Cached employee list shared by all pages; use it on the FX thread. */
+    public EmployeeDirectory getEmployeeDirectory() {
+        return employeeDirectory;
+    }
+
+    /** Committed changes; subscribe with {@link #fxThread()} to update a page in place. */
+    public ChangeBus getChanges() {
+        return dbManager.getChanges();
+    }
+
+    // The directory follows these through the change bus
+    public CompletableFuture<Boolean> saveEmployee(Employee employee) {
+        return enqueue(() -> dbManager.enqueueSaveEmployee(employee));
+    }
+
+    public CompletableFuture<Boolean> updateEmployee(Employee employee) {
+        return enqueue(() -> dbManager.enqueueUpdateEmployee(employee));
+    }
+
+    public CompletableFuture<Boolean> deleteEmployee(int employeeId) {
+        return enqueue(() -> dbManager.enqueueDeleteEmployee(employeeId));
+    }
+
+    // Transaction operations
+    public CompletableFuture<Boolean> saveTransaction(String type, Transaction transaction) {
+        return enqueue(() -> dbManager.enqueueSaveTransaction(type, transaction));
+    }
+
+    public CompletableFuture<Boolean> deleteTransaction(String type, int transactionId) {
+        return enqueue(() -> dbManager.enqueueDeleteTransaction(type, transactionId));
+    }
+
+    public CompletableFuture<List<TransactionView>> getTransactionViews(String type, LocalDate fromDate, LocalDate toDate) {
+        return submit(db -> db.getTransactionViews(type, fromDate, toDate));
+    }
+
+    /** Streams a range on a background worker; {@code consumer} runs on that worker, not the FX thread. */
+    public CompletableFuture<Long> streamTransactions(String type, LocalDate fromDate, LocalDate toDate,
+                                                      Consumer<TransactionView> consumer) {
+        return submit(db -> db.streamTransactions(type, fromDate, toDate, consumer));
+    }
+
+    public CompletableFuture<List<TransactionView>> getTransactionPage(String type, LocalDate fromDate, LocalDate toDate,
+                                                                      TransactionView after, int limit) {
+        return submit(db -> db.getTransactionPage(type, fromDate, toDate, after, limit));
+    }
+
+    public CompletableFuture<List<TransactionView>> getTransactionPage(String type, LocalDate fromDate, LocalDate toDate,
+                                                                      TransactionFilter filter, TransactionView after, int limit) {
+        return submit(db -> db.getTransactionPage(type, fromDate, toDate, filter, after, limit));
+    }
+
+    /** Completes with null when the range holds more than {@code maxRows} transactions. */
+    public CompletableFuture<ColumnarRange> loadColumns(LocalDate fromDate, LocalDate toDate, int maxRows) {
+        return submit(db -> db.loadColumns(fromDate, toDate, maxRows));
+    }
+
+    public CompletableFuture<List<TransactionView>> fillNotes(String type, List<TransactionView> rows) {
+        return submit(db -> db.fillNotes(type, rows));
+    }
+
+    public CompletableFuture<List<SearchResult>> searchNotes(String query, LocalDate fromDate, LocalDate toDate,
+                                                             int offset, int limit) {
+        return submit(db -> db.searchNotes(query, fromDate, toDate, offset, limit));
+    }
+
+    public CompletableFuture<PeriodSummary> getPeriodSummary(LocalDate fromDate, LocalDate toDate) {
+        return submit(db -> db.getPeriodSummary(fromDate, toDate));
+    }
+
+    public CompletableFuture<PeriodSummary> getPeriodSummary(LocalDate fromDate, LocalDate toDate, TransactionFilter filter) {
+        return submit(db -> db.getPeriodSummary(fromDate, toDate, filter));
+    }
+
+    public CompletableFuture<Boolean> verifyDailyTotals() {
+        return submit(DatabaseManager::verifyDailyTotals);
+    }
+
+    public CompletableFuture<Boolean> rebuildDailyTotals() {
+        return enqueue(dbManager::enqueueRebuildDailyTotals);
+    }
+
+    // Settings operations
+    public CompletableFuture<String> getSetting(String key) {
+        return submit(db -> db.getSetting(key));
+    }
+
+    public CompletableFuture<Boolean> updateSetting(String key, String value) {
+        return enqueue(() -> dbManager.enqueueUpdateSetting(key, value));
+    }
+
+    /** Saves several settings in one transaction; all of them are written or none. */
+    public CompletableFuture<Boolean> updateSettings(Map<String, String> values) {
+        return enqueue(() -> dbManager.enqueueUpdateSettings(values));
+    }
+
+    /** Lets queued work finish (bounded) before the connection is closed. */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.accounting.database;
+
+import com.accounting.model.Employee;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The one employee list shared by every page (employee table, data-entry combo boxes).
+ *
+ * It is built from the id -> name map that {@link DatabaseManager} keeps current, so showing it
+ * costs no query. Once built it follows the employee events of the {@link ChangeBus}, so every
+ * committed add, rename or delete (including employees created by an import) patches it in place.
+ * Those events are delivered on the FX thread before the continuations of the write's own future.
+ * Like any list bound to controls, it must only be used on the JavaFX thread.
+ */
+public class EmployeeDirectory {
+    // Same order as "ORDER BY name" (binary collation)
+    private static final Comparator<Employee> BY_NAME = Comparator.comparing(Employee::getName);
+
+    private final DatabaseManager dbManager;
+    private final ObservableList<Employee> employees = FXCollections.observableArrayList();
+    private boolean loaded;
+
+    EmployeeDirectory(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /** The shared list, sorted by name. Do not modify it; use the DatabaseService employee operations. */
+    public ObservableList<Employee> getEmployees() {
+        if (!loaded) {
+            refresh();
+        }
+        return employees;
+    }
+
+    /** Rebuilds the list from the cached names. */
+    public void refresh() {
+        if (!loaded) {
+            dbManager.getChanges().subscribe(DatabaseService.fxThread(), this::onChanges);
+        }
+
+        List<Employee> all = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : dbManager.getEmployeeNames().entrySet()) {
+            all.add(new Employee(entry.getKey(), entry.getValue()));
+        }
+        all.sort(BY_NAME);
+        employees.setAll(all);
+        loaded = true;
+    }
+
+    private void onChanges(List<ChangeEvent> changes) {
+        for (ChangeEvent change : changes) {
+            if (change instanceof ChangeEvent.EmployeeAdded added) {
+                added(added.getId(), added.getName());
+            } else if (change instanceof ChangeEvent.EmployeeRenamed renamed) {
+                renamed(renamed.getId(), renamed.getName());
+            } else if (change instanceof ChangeEvent.EmployeeDeleted deleted) {
+                removed(deleted.getId());
+            }
+        }
+    }
+
+    // The updates below are idempotent: the list may have been built after the commit already
+    private void added(int employeeId, String name) {
+        if (indexOf(employeeId) < 0) {
+            insertSorted(new Employee(employeeId, name));
+        }
+    }
+
+    private void renamed(int employeeId, String name) {
+        int index = indexOf(employeeId);
+        if (index >= 0) {
+            employees.remove(index);
+        }
+        insertSorted(new Employee(employeeId, name));
+    }
+
+    private void removed(int employeeId) {
+        int index = indexOf(employeeId);
+        if (index >= 0) {
+            employees.remove(index);
+        }
+    }
+
+    private int indexOf(int employeeId) {
+        for (int i = 0; i < employees.size(); i++) {
+            if (employees.get(i).getId() == employeeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSorted(Employee employee) {
+        int index = 0;
+        while (index < employees.size() && BY_NAME.compare(employees.get(index), employee) <= 0) {
+            index++;
+        }
+        employees.add(index, employee);
+    }
+}
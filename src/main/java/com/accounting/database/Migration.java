@@ -0,0 +1,38 @@
+package com.accounting.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One step of the schema history. {@link SchemaMigrator} applies it inside a transaction
+ * together with the {@code PRAGMA user_version} bump, so it either lands completely or not at all.
+ */
+class Migration {
+    private final int version;
+    private final String description;
+    private final String[] statements;
+
+    Migration(int version, String description, String... statements) {
+        this.version = version;
+        this.description = description;
+        this.statements = statements;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /** Runs the migration's statements. Subclasses may override for steps that need Java logic. */
+    void apply(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.accounting.database;
+
+import java.util.Map;
+
+/** Point-in-time snapshot of {@link ConnectionPool} metrics. */
+public class PoolStats {
+    private final int readerPoolSize;
+    private final int idleReaders;
+    private final long acquireCount;
+    private final long totalAcquireWaitNanos;
+    private final long maxAcquireWaitNanos;
+    private final Map<String, Long> queryCounts;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    PoolStats(int readerPoolSize, int idleReaders, long acquireCount,
+              long totalAcquireWaitNanos, long maxAcquireWaitNanos, Map<String, Long> queryCounts,
+              long statementCacheHits, long statementCacheMisses) {
+        this.readerPoolSize = readerPoolSize;
+        this.idleReaders = idleReaders;
+        this.acquireCount = acquireCount;
+        this.totalAcquireWaitNanos = totalAcquireWaitNanos;
+        this.maxAcquireWaitNanos = maxAcquireWaitNanos;
+        this.queryCounts = queryCounts;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getReaderPoolSize() {
+        return readerPoolSize;
+    }
+
+    public int getIdleReaders() {
+        return idleReaders;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public double getAverageAcquireWaitMillis() {
+        return acquireCount == 0 ? 0.0 : totalAcquireWaitNanos / 1_000_000.0 / acquireCount;
+    }
+
+    public double getMaxAcquireWaitMillis() {
+        return maxAcquireWaitNanos / 1_000_000.0;
+    }
+
+    /** Statements prepared per connection, keyed by connection name ("writer", "reader-1", ...). */
+    public Map<String, Long> getQueryCounts() {
+        return queryCounts;
+    }
+
+    /** Prepared-statement cache hits summed over all connections. */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /** Prepared-statement cache misses (statements actually prepared) summed over all connections. */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("readers=%d idle=%d acquires=%d avgWait=%.3fms maxWait=%.3fms queries=%s " +
+                        "stmtCache hits=%d misses=%d",
+                readerPoolSize, idleReaders, acquireCount,
+                getAverageAcquireWaitMillis(), getMaxAcquireWaitMillis(), queryCounts,
+                statementCacheHits, statementCacheMisses);
+    }
+}
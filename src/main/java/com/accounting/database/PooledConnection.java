@@ -0,0 +1,80 @@
+package com.accounting.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A connection handed out by {@link ConnectionPool}.
+ *
+ * Closing it returns it to the pool (or releases the writer lock) instead of closing
+ * the underlying JDBC connection, so it is meant to be used in try-with-resources.
+ */
+public class PooledConnection implements AutoCloseable {
+    private final String name;
+    private final Connection connection;
+    private final ConnectionPool pool;
+    private final AtomicLong queryCount = new AtomicLong();
+    private final StatementCache statementCache;
+
+    PooledConnection(String name, Connection connection, ConnectionPool pool) {
+        this.name = name;
+        this.connection = connection;
+        this.pool = pool;
+        this.statementCache = new StatementCache(connection);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getQueryCount() {
+        return queryCount.get();
+    }
+
+    /** The raw connection, for transaction control (auto-commit, commit, rollback). */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public Statement createStatement() throws SQLException {
+        queryCount.incrementAndGet();
+        return connection.createStatement();
+    }
+
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        queryCount.incrementAndGet();
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Returns a cached statement for {@code sql}, preparing it on first use.
+     * The statement belongs to this connection: close its result sets, never the statement itself.
+     */
+    public PreparedStatement prepareCached(String sql) throws SQLException {
+        queryCount.incrementAndGet();
+        return statementCache.get(sql);
+    }
+
+    long getCacheHits() {
+        return statementCache.getHits();
+    }
+
+    long getCacheMisses() {
+        return statementCache.getMisses();
+    }
+
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    void closePhysical() throws SQLException {
+        statementCache.close();
+        if (!connection.isClosed()) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.accounting.database;
+
+import com.accounting.util.Log;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings {@code accounting.db} up to the current schema version.
+ *
+ * The applied version is tracked in {@code PRAGMA user_version}. Every pending migration runs
+ * in its own transaction which also bumps that version, so an interrupted upgrade leaves the
+ * file at the last fully applied step and simply resumes from there on the next start.
+ */
+class SchemaMigrator {
+
+    /** Recomputes every daily_totals row from the base tables; also used by the consistency check. */
+    static final String[] DAILY_TOTALS_BACKFILL = {
+            dailyTotalsBackfill("sales"),
+            dailyTotalsBackfill("expenses"),
+            dailyTotalsBackfill("profits")
+    };
+
+    /** Code of each transaction table in notes_fts rowids: {@code rowid = id * 4 + code}. */
+    static final Map<String, Integer> NOTES_TYPE_CODES = Map.of("sales", 0, "expenses", 1, "profits", 2);
+
+    /**
+     * Legacy {@code time} with single-digit hours padded: entry accepted {@code H:mm[:ss]},
+     * while strftime needs {@code HH:MM}.
+     */
+    private static final String LEGACY_TIME =
+            "CASE WHEN trim(time) GLOB '[0-9]:*' THEN '0' || trim(time) ELSE trim(time) END";
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "base tables and default settings",
+                    """
+                    CREATE TABLE IF NOT EXISTS employees (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL UNIQUE
+                    )
+                    """,
+                    transactionTable("sales"),
+                    transactionTable("expenses"),
+                    transactionTable("profits"),
+                    """
+                    CREATE TABLE IF NOT EXISTS settings (
+                        key TEXT PRIMARY KEY,
+                        value TEXT NOT NULL
+                    )
+                    """,
+                    """
+                    INSERT OR IGNORE INTO settings (key, value) VALUES
+                    ('currency', 'Kz'),
+                    ('exchange_rate', '1.0')
+                    """),
+            new Migration(2, "date range and employee indexes on transaction tables",
+                    // Covers the range filter and its ORDER BY, plus amount for totals
+                    "CREATE INDEX IF NOT EXISTS idx_sales_date_time ON sales (date, time, employee_id, amount)",
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_date_time ON expenses (date, time, employee_id, amount)",
+                    "CREATE INDEX IF NOT EXISTS idx_profits_date_time ON profits (date, time, employee_id, amount)",
+                    // Used by the cascading deletes in deleteEmployee
+                    "CREATE INDEX IF NOT EXISTS idx_sales_employee ON sales (employee_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_employee ON expenses (employee_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_profits_employee ON profits (employee_id)"),
+            new Migration(3, "integer cents and epoch-second timestamps",
+                    concat(integerStorage("sales"), integerStorage("expenses"), integerStorage("profits"))) {
+                @Override
+                void apply(Connection connection) throws SQLException {
+                    checkLegacyTimestamps(connection);
+                    super.apply(connection);
+                }
+            },
+            new Migration(4, "daily_totals rollup kept current by triggers",
+                    concat(new String[] {"""
+                            CREATE TABLE daily_totals (
+                                epoch_day INTEGER NOT NULL,
+                                type TEXT NOT NULL,
+                                employee_id INTEGER NOT NULL,
+                                total_cents INTEGER NOT NULL,
+                                row_count INTEGER NOT NULL,
+                                PRIMARY KEY (epoch_day, type, employee_id)
+                            ) WITHOUT ROWID
+                            """},
+                            dailyTotalsTriggers("sales"), dailyTotalsTriggers("expenses"), dailyTotalsTriggers("profits"),
+                            DAILY_TOTALS_BACKFILL)),
+            new Migration(5, "keyset pagination indexes",
+                    // Lets (occurred_at, id) < (?, ?) ORDER BY occurred_at DESC, id DESC stream without a sort
+                    "CREATE INDEX IF NOT EXISTS idx_sales_keyset ON sales (occurred_at, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_keyset ON expenses (occurred_at, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_profits_keyset ON profits (occurred_at, id)"),
+            new Migration(6, "full-text index over notes",
+                    concat(new String[] {"""
+                            CREATE VIRTUAL TABLE notes_fts USING fts5(
+                                notes,
+                                content = '',
+                                contentless_delete = 1,
+                                tokenize = "unicode61 remove_diacritics 2 categories 'L* N* Co M*'"
+                            )
+                            """},
+                            notesIndexTriggers("sales"), notesIndexTriggers("expenses"), notesIndexTriggers("profits")))
+    );
+
+    /**
+     * Keeps notes_fts in step with a transaction table and indexes its existing notes. The index
+     * stores no text (contentless), only the normalized tokens; rows are found again through the rowid.
+     */
+    private static String[] notesIndexTriggers(String name) {
+        int typeCode = NOTES_TYPE_CODES.get(name);
+        String insertNew = String.format("""
+                    INSERT INTO notes_fts (rowid, notes)
+                    SELECT NEW.id * 4 + %d, %s WHERE NEW.notes <> '';
+                """, typeCode, SearchText.normalizeSql("NEW.notes"));
+        String deleteOld = String.format("""
+                    DELETE FROM notes_fts WHERE rowid = OLD.id * 4 + %d;
+                """, typeCode);
+        return new String[] {
+                String.format("CREATE TRIGGER trg_%s_fts_insert AFTER INSERT ON %s BEGIN\n%sEND", name, name, insertNew),
+                String.format("CREATE TRIGGER trg_%s_fts_delete AFTER DELETE ON %s BEGIN\n%sEND", name, name, deleteOld),
+                String.format("CREATE TRIGGER trg_%s_fts_update AFTER UPDATE OF notes ON %s BEGIN\n%s%sEND",
+                        name, name, deleteOld, insertNew),
+                String.format("INSERT INTO notes_fts (rowid, notes) SELECT id * 4 + %d, %s FROM %s WHERE notes <> ''",
+                        typeCode, SearchText.normalizeSql("notes"), name)
+        };
+    }
+
+    private static String dailyTotalsBackfill(String name) {
+        return String.format("""
+                INSERT INTO daily_totals (epoch_day, type, employee_id, total_cents, row_count)
+                SELECT occurred_at / 86400, '%1$s', employee_id, SUM(amount_cents), COUNT(*)
+                FROM %1$s
+                GROUP BY occurred_at / 86400, employee_id
+                """, name);
+    }
+
+    /**
+     * Triggers that apply each insert, delete or update of a transaction row to its daily_totals
+     * bucket inside the same transaction, so the rollup can never be committed out of step.
+     */
+    private static String[] dailyTotalsTriggers(String name) {
+        String addNew = String.format("""
+                    INSERT INTO daily_totals (epoch_day, type, employee_id, total_cents, row_count)
+                    VALUES (NEW.occurred_at / 86400, '%s', NEW.employee_id, NEW.amount_cents, 1)
+                    ON CONFLICT (epoch_day, type, employee_id) DO UPDATE
+                    SET total_cents = total_cents + excluded.total_cents, row_count = row_count + 1;
+                """, name);
+        String removeOld = String.format("""
+                    UPDATE daily_totals
+                    SET total_cents = total_cents - OLD.amount_cents, row_count = row_count - 1
+                    WHERE epoch_day = OLD.occurred_at / 86400 AND type = '%1$s' AND employee_id = OLD.employee_id;
+                    DELETE FROM daily_totals
+                    WHERE epoch_day = OLD.occurred_at / 86400 AND type = '%1$s' AND employee_id = OLD.employee_id
+                      AND row_count <= 0;
+                """, name);
+        return new String[] {
+                String.format("CREATE TRIGGER trg_%s_daily_insert AFTER INSERT ON %s BEGIN\n%sEND", name, name, addNew),
+                String.format("CREATE TRIGGER trg_%s_daily_delete AFTER DELETE ON %s BEGIN\n%sEND", name, name, removeOld),
+                String.format("CREATE TRIGGER trg_%s_daily_update AFTER UPDATE OF employee_id, amount_cents, occurred_at ON %s BEGIN\n%s%sEND",
+                        name, name, removeOld, addNew)
+        };
+    }
+
+    /**
+     * Refuses to convert a table holding a date strftime cannot read, since the row would have no
+     * day to land on; the upgrade rolls back and names the rows to fix. Times that cannot be read
+     * fall back to midnight of their day, and the number of such rows is reported.
+     */
+    private static void checkLegacyTimestamps(Connection connection) throws SQLException {
+        StringBuilder badDates = new StringBuilder();
+        try (Statement stmt = connection.createStatement()) {
+            for (String name : List.of("sales", "expenses", "profits")) {
+                try (ResultSet rs = stmt.executeQuery(String.format(
+                        "SELECT id, date FROM %s WHERE strftime('%%s', date) IS NULL ORDER BY id", name))) {
+                    while (rs.next()) {
+                        badDates.append(badDates.length() == 0 ? "" : ", ")
+                                .append(name).append(" #").append(rs.getLong(1))
+                                .append(" '").append(rs.getString(2)).append('\'');
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery(String.format(
+                        "SELECT COUNT(*) FROM %s WHERE strftime('%%s', date || ' ' || %s) IS NULL "
+                                + "AND strftime('%%s', date) IS NOT NULL", name, LEGACY_TIME))) {
+                    long midnight = rs.next() ? rs.getLong(1) : 0;
+                    if (midnight > 0) {
+                        System.err.println("SchemaMigrator: " + midnight + " " + name +
+                                " row(s) have an unreadable time and are stored at midnight of their date");
+                    }
+                }
+            }
+        }
+        if (badDates.length() > 0) {
+            throw new SQLException("Unreadable legacy dates: " + badDates);
+        }
+    }
+
+    /**
+     * Rebuilds a transaction table with {@code amount_cents} and {@code occurred_at} in place of
+     * the REAL amount and TEXT date/time columns. Every date has been checked to parse by then.
+     */
+    private static String[] integerStorage(String name) {
+        return new String[] {
+                String.format("""
+                CREATE TABLE %s_v3 (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    employee_id INTEGER NOT NULL,
+                    amount_cents INTEGER NOT NULL,
+                    occurred_at INTEGER NOT NULL,
+                    notes TEXT,
+                    FOREIGN KEY (employee_id) REFERENCES employees (id)
+                )
+                """, name),
+                String.format("""
+                INSERT INTO %1$s_v3 (id, employee_id, amount_cents, occurred_at, notes)
+                SELECT id, employee_id,
+                       CAST(ROUND(amount * 100) AS INTEGER),
+                       COALESCE(CAST(strftime('%%s', date || ' ' || %2$s) AS INTEGER),
+                                CAST(strftime('%%s', date) AS INTEGER)),
+                       notes
+                FROM %1$s
+                """, name, LEGACY_TIME),
+                // Keep AUTOINCREMENT from reusing ids of rows deleted before the upgrade
+                String.format("""
+                INSERT INTO sqlite_sequence (name, seq)
+                SELECT '%1$s_v3', seq FROM sqlite_sequence
+                WHERE name = '%1$s' AND NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = '%1$s_v3')
+                """, name),
+                String.format("""
+                UPDATE sqlite_sequence
+                SET seq = MAX(seq, COALESCE((SELECT seq FROM sqlite_sequence WHERE name = '%1$s'), 0))
+                WHERE name = '%1$s_v3'
+                """, name),
+                String.format("DROP TABLE %s", name),
+                String.format("ALTER TABLE %1$s_v3 RENAME TO %1$s", name),
+                String.format("CREATE INDEX idx_%1$s_occurred_at ON %1$s (occurred_at, employee_id, amount_cents)", name),
+                String.format("CREATE INDEX idx_%1$s_employee ON %1$s (employee_id)", name)
+        };
+    }
+
+    private static String[] concat(String[]... parts) {
+        return Arrays.stream(parts).flatMap(Arrays::stream).toArray(String[]::new);
+    }
+
+    private static String transactionTable(String name) {
+        return String.format("""
+                CREATE TABLE IF NOT EXISTS %s (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    employee_id INTEGER NOT NULL,
+                    amount REAL NOT NULL,
+                    date TEXT NOT NULL,
+                    time TEXT NOT NULL,
+                    notes TEXT,
+                    FOREIGN KEY (employee_id) REFERENCES employees (id)
+                )
+                """, name);
+    }
+
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    /**
+     * Applies every migration newer than the file's {@code user_version}.
+     *
+     * @return the number of migrations applied
+     */
+    int migrate(Connection connection) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        int currentVersion = readUserVersion(connection);
+        int applied = 0;
+
+        Log.debug("SchemaMigrator: Schema version " + currentVersion +
+                ", latest " + latestVersion());
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.getVersion() <= currentVersion) {
+                continue;
+            }
+
+            long migrationStart = System.currentTimeMillis();
+            connection.setAutoCommit(false);
+            try {
+                migration.apply(connection);
+                try (Statement stmt = connection.createStatement()) {
+                    // PRAGMA cannot take bound parameters; the version is an int we control
+                    stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new SQLException("Migration " + migration.getVersion() + " (" +
+                        migration.getDescription() + ") failed", e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            applied++;
+            Log.debug("SchemaMigrator: Applied v" + migration.getVersion() + " (" +
+                    migration.getDescription() + ") in " +
+                    (System.currentTimeMillis() - migrationStart) + "ms");
+        }
+
+        Log.debug("SchemaMigrator: " + applied + " migration(s) applied in " +
+                (System.currentTimeMillis() - startTime) + "ms");
+        return applied;
+    }
+
+    private static int readUserVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
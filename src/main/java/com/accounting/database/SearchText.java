@@ -0,0 +1,105 @@
+package com.accounting.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normalization shared by the notes full-text index and the queries against it.
+ *
+ * Arabic is written with optional diacritics, tatweel and several alef forms, none of which the FTS5
+ * unicode61 tokenizer folds. Both the indexed notes (in SQL, inside the triggers) and the search terms
+ * (in Java) are therefore reduced to one spelling first: diacritics and tatweel are dropped, أ إ آ ٱ
+ * become ا and ى becomes ي. Both sides must apply exactly the same mapping.
+ */
+final class SearchText {
+    /**
+     * Characters removed: fathatan .. sukun, maddah and combining hamza, superscript alef, tatweel.
+     * Kept short on purpose: every entry is one more nested replace() in the trigger SQL, and SQLite's
+     * parser gives up at around 30 levels.
+     */
+    private static final int[] REMOVED = concat(range(0x064B, 0x0655), new int[] {0x0670, 0x0640});
+
+    /** Pairs of (from, to). */
+    private static final int[][] REPLACED = {
+            {0x0622, 0x0627}, {0x0623, 0x0627}, {0x0625, 0x0627}, {0x0671, 0x0627},
+            {0x0649, 0x064A}
+    };
+
+    private SearchText() {}
+
+    static String normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        text.codePoints().forEach(c -> {
+            if (!isRemoved(c)) {
+                out.appendCodePoint(mapped(c));
+            }
+        });
+        return out.toString();
+    }
+
+    /** The same normalization as a SQL expression over {@code column}, for triggers and backfills. */
+    static String normalizeSql(String column) {
+        String sql = column;
+        for (int c : REMOVED) {
+            sql = "replace(" + sql + ", char(" + c + "), '')";
+        }
+        for (int[] pair : REPLACED) {
+            sql = "replace(" + sql + ", char(" + pair[0] + "), char(" + pair[1] + "))";
+        }
+        return sql;
+    }
+
+    /**
+     * FTS5 query matching rows that contain every word of {@code userQuery}, each as a prefix
+     * ("فات" finds "فاتورة"). Returns null if the input has no searchable characters.
+     */
+    static String toMatchQuery(String userQuery) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        String normalized = normalize(userQuery) + " ";
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                // Quoted, so words like AND / OR / NEAR are searched for, not interpreted
+                terms.add("\"" + term + "\"*");
+                term.setLength(0);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    private static boolean isRemoved(int c) {
+        for (int removed : REMOVED) {
+            if (removed == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int mapped(int c) {
+        for (int[] pair : REPLACED) {
+            if (pair[0] == c) {
+                return pair[1];
+            }
+        }
+        return c;
+    }
+
+    private static int[] range(int first, int last) {
+        int[] values = new int[last - first + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = first + i;
+        }
+        return values;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] values = new int[a.length + b.length];
+        System.arraycopy(a, 0, values, 0, a.length);
+        System.arraycopy(b, 0, values, a.length, b.length);
+        return values;
+    }
+}
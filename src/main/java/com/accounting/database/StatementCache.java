@@ -0,0 +1,79 @@
+package com.accounting.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared statements of one connection, keyed by SQL text.
+ *
+ * Per-table statements are distinct SQL strings, so the key also separates the table types.
+ * The cache is only touched by whoever currently holds the owning {@link PooledConnection},
+ * so it needs no locking; the counters are atomic because stats are read from other threads.
+ */
+class StatementCache {
+    private static final int MAX_STATEMENTS = 64;
+
+    private final Connection connection;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Access-ordered so the least recently used statement is evicted first
+    private final LinkedHashMap<String, PreparedStatement> statements =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    PreparedStatement get(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits.incrementAndGet();
+            statement.clearParameters();
+            return statement;
+        }
+
+        misses.incrementAndGet();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        evictIfFull();
+        return statement;
+    }
+
+    private void evictIfFull() {
+        if (statements.size() <= MAX_STATEMENTS) {
+            return;
+        }
+        Iterator<Map.Entry<String, PreparedStatement>> eldest = statements.entrySet().iterator();
+        closeQuietly(eldest.next().getValue());
+        eldest.remove();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    void close() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.accounting.database;
+
+import com.accounting.util.Counter;
+import com.accounting.util.LatencyTimer;
+import com.accounting.util.MetricsRegistry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer thread with group commit.
+ *
+ * Write commands are executed strictly in submission order by one thread. Commands that arrive
+ * close together are committed as one SQL transaction, so a burst of saves pays for one WAL sync
+ * instead of one each. A group closes after {@value #MAX_GROUP_SIZE} commands or
+ * {@value #MAX_GROUP_DELAY_MILLIS}ms after its first command, whichever comes first.
+ *
+ * Every command runs inside its own savepoint: a failing command is rolled back and its future
+ * completes exceptionally, while the rest of the group still commits. Futures complete only after
+ * the commit, so a caller never observes a write that could still be rolled back.
+ */
+class WriteQueue {
+    private static final int MAX_GROUP_SIZE = 256;
+    private static final long MAX_GROUP_DELAY_MILLIS = 2;
+
+    private static final LatencyTimer COMMIT_TIMER = MetricsRegistry.getInstance().timer("db.writeQueue.commit");
+    private static final Counter GROUPS = MetricsRegistry.getInstance().counter("db.writeQueue.groups");
+    private static final Counter COMMANDS = MetricsRegistry.getInstance().counter("db.writeQueue.commands");
+
+    /** One unit of work against the writer connection. */
+    interface Command<T> {
+        T execute(PooledConnection conn) throws SQLException;
+    }
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private boolean closed;
+
+    WriteQueue(ConnectionPool pool) {
+        this.pool = pool;
+        writerThread = new Thread(this::run, "db-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    synchronized <T> CompletableFuture<T> submit(Command<T> command) {
+        Pending<T> pending = new Pending<>(command);
+        if (closed) {
+            pending.future.completeExceptionally(new IllegalStateException("Write queue is closed"));
+        } else {
+            queue.add(pending);
+        }
+        return pending.future;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void run() {
+        List<Pending<?>> group = new ArrayList<>(MAX_GROUP_SIZE);
+        try {
+            // Once closed nothing new is queued, so an empty queue means every write has been committed
+            while (!isClosed() || !queue.isEmpty()) {
+                Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                group.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_GROUP_DELAY_MILLIS);
+                while (group.size() < MAX_GROUP_SIZE) {
+                    Pending<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+
+                commitGroup(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException interrupted = new IllegalStateException("Writer thread interrupted");
+            group.forEach(pending -> pending.future.completeExceptionally(interrupted));
+            queue.forEach(pending -> pending.future.completeExceptionally(interrupted));
+        }
+    }
+
+    private void commitGroup(List<Pending<?>> group) {
+        long start = System.nanoTime();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            Connection connection = conn.getConnection();
+            try {
+                connection.setAutoCommit(false);
+
+                for (Pending<?> pending : group) {
+                    pending.execute(conn);
+                }
+
+                connection.commit();
+                group.forEach(Pending::complete);
+
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackEx) {
+                    rollbackEx.printStackTrace();
+                }
+                e.printStackTrace();
+                group.forEach(pending -> pending.future.completeExceptionally(e));
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                COMMIT_TIMER.recordSince(start);
+                GROUPS.increment();
+                COMMANDS.add(group.size());
+            }
+        }
+    }
+
+    /** Commits everything already queued, then stops the writer thread. */
+    void shutdown() {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Pending<T> {
+        private final Command<T> command;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Exception failure;
+
+        Pending(Command<T> command) {
+            this.command = command;
+        }
+
+        /** Runs the command under a savepoint so its failure does not abort the rest of the group. */
+        void execute(PooledConnection conn) throws SQLException {
+            Connection connection = conn.getConnection();
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                result = command.execute(conn);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback(savepoint);
+                failure = e;
+            }
+            connection.releaseSavepoint(savepoint);
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
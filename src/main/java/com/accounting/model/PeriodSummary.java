@@ -0,0 +1,93 @@
+package com.accounting.model;
+
+/** Totals and row counts of the three transaction tables over a date range, in cents. */
+public class PeriodSummary {
+    private final long salesCents;
+    private final long salesCount;
+    private final long expensesCents;
+    private final long expensesCount;
+    private final long profitsCents;
+    private final long profitsCount;
+
+    public PeriodSummary(long salesCents, long salesCount,
+                         long expensesCents, long expensesCount,
+                         long profitsCents, long profitsCount) {
+        this.salesCents = salesCents;
+        this.salesCount = salesCount;
+        this.expensesCents = expensesCents;
+        this.expensesCount = expensesCount;
+        this.profitsCents = profitsCents;
+        this.profitsCount = profitsCount;
+    }
+
+    public long getSalesCents() {
+        return salesCents;
+    }
+
+    public long getSalesCount() {
+        return salesCount;
+    }
+
+    public long getExpensesCents() {
+        return expensesCents;
+    }
+
+    public long getExpensesCount() {
+        return expensesCount;
+    }
+
+    public long getProfitsCents() {
+        return profitsCents;
+    }
+
+    public long getProfitsCount() {
+        return profitsCount;
+    }
+
+    /** Sales plus profits minus expenses. */
+    public long getNetProfitCents() {
+        return salesCents + profitsCents - expensesCents;
+    }
+
+    /** Row count of one table type ("sales", "expenses" or "profits"). */
+    public long getCount(String type) {
+        switch (type) {
+            case "sales": return salesCount;
+            case "expenses": return expensesCount;
+            case "profits": return profitsCount;
+            default: throw new IllegalArgumentException("Invalid table type: " + type);
+        }
+    }
+
+    /** This summary with one transaction of {@code type} taken out, e.g. after it was deleted. */
+    public PeriodSummary without(String type, long amountCents) {
+        switch (type) {
+            case "sales":
+                return new PeriodSummary(salesCents - amountCents, salesCount - 1,
+                        expensesCents, expensesCount, profitsCents, profitsCount);
+            case "expenses":
+                return new PeriodSummary(salesCents, salesCount,
+                        expensesCents - amountCents, expensesCount - 1, profitsCents, profitsCount);
+            case "profits":
+                return new PeriodSummary(salesCents, salesCount,
+                        expensesCents, expensesCount, profitsCents - amountCents, profitsCount - 1);
+            default: throw new IllegalArgumentException("Invalid table type: " + type);
+        }
+    }
+
+    public double getTotalSales() {
+        return salesCents / 100.0;
+    }
+
+    public double getTotalExpenses() {
+        return expensesCents / 100.0;
+    }
+
+    public double getTotalProfits() {
+        return profitsCents / 100.0;
+    }
+
+    public double getNetProfit() {
+        return getNetProfitCents() / 100.0;
+    }
+}
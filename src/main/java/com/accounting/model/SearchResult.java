@@ -0,0 +1,17 @@
+package com.accounting.model;
+
+/** A transaction found by a notes search, with its table. */
+public class SearchResult extends TransactionView {
+    private final String type;
+
+    public SearchResult(String type, int id, String employeeName,
+                        long amountCents, long occurredAt, String notes) {
+        super(id, employeeName, amountCents, occurredAt, notes);
+        this.type = type;
+    }
+
+    /** "sales", "expenses" or "profits". */
+    public String getType() {
+        return type;
+    }
+}
@@ -1,62 +1,84 @@
 package com.accounting.model;
 
+import com.accounting.util.Timestamps;
+
 import java.time.LocalDate;
 
 public class Transaction {
     private int id;
     private int employeeId;
-    private double amount;
-    private LocalDate date;
-    private String time;
+    private long amountCents;
+    private long epochDay;
+    private int secondOfDay;
     private String notes;
-    
+
     public Transaction() {}
-    
+
     public int getId() {
         return id;
     }
-    
+
     public void setId(int id) {
         this.id = id;
     }
-    
+
     public int getEmployeeId() {
         return employeeId;
     }
-    
+
     public void setEmployeeId(int employeeId) {
         this.employeeId = employeeId;
     }
-    
+
     public double getAmount() {
-        return amount;
+        return amountCents / 100.0;
     }
-    
+
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountCents = Math.round(amount * 100);
+    }
+
+    /** Amount in minor units (cents), as stored. */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
-    
+
     public LocalDate getDate() {
-        return date;
+        return LocalDate.ofEpochDay(epochDay);
     }
-    
+
     public void setDate(LocalDate date) {
-        this.date = date;
+        this.epochDay = date.toEpochDay();
     }
-    
+
     public String getTime() {
-        return time;
+        return Timestamps.formatTime(secondOfDay);
     }
-    
+
+    /** @throws java.time.format.DateTimeParseException if {@code time} is not a valid time of day */
     public void setTime(String time) {
-        this.time = time;
+        this.secondOfDay = Timestamps.parseTime(time);
     }
-    
+
+    /** Date and time as seconds since the epoch of the local wall clock, as stored. */
+    public long getOccurredAt() {
+        return epochDay * Timestamps.SECONDS_PER_DAY + secondOfDay;
+    }
+
+    public void setOccurredAt(long occurredAt) {
+        this.epochDay = Timestamps.epochDay(occurredAt);
+        this.secondOfDay = Timestamps.secondOfDay(occurredAt);
+    }
+
     public String getNotes() {
         return notes;
     }
-    
+
     public void setNotes(String notes) {
         this.notes = notes;
     }
-}
\ No newline at end of file
+}
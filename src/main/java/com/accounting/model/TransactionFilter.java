@@ -0,0 +1,50 @@
+package com.accounting.model;
+
+/**
+ * Narrowing applied on top of a date range: one employee and/or an amount band.
+ *
+ * Amounts are in cents (USD, as stored) and both bounds are inclusive. Employee ids start at 1,
+ * so 0 stands for "any employee".
+ */
+public final class TransactionFilter {
+    public static final TransactionFilter NONE = new TransactionFilter(0, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final int employeeId;
+    private final long minCents;
+    private final long maxCents;
+
+    public TransactionFilter(int employeeId, long minCents, long maxCents) {
+        this.employeeId = employeeId;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    /** The employee to keep, or 0 for all of them. */
+    public int getEmployeeId() {
+        return employeeId;
+    }
+
+    public long getMinCents() {
+        return minCents;
+    }
+
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    public boolean hasEmployee() {
+        return employeeId != 0;
+    }
+
+    public boolean hasAmountBand() {
+        return minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE;
+    }
+
+    public boolean isEmpty() {
+        return !hasEmployee() && !hasAmountBand();
+    }
+
+    public boolean matchesAmount(long amountCents) {
+        return amountCents >= minCents && amountCents <= maxCents;
+    }
+}
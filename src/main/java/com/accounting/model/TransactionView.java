@@ -1,72 +1,120 @@
 package com.accounting.model;
 
+import com.accounting.util.CurrencySnapshot;
+import com.accounting.util.Timestamps;
+
 import java.time.LocalDate;
 
 public class TransactionView {
     private int id;
     private String employeeName;
-    private double amount;
-    private LocalDate date;
-    private String time;
+    private long amountCents;
+    private long occurredAt;
     private String notes;
-    
+
+    // Display text of the amount and the currency settings it was formatted with; FX thread only
+    private String amountText;
+    private CurrencySnapshot amountTextCurrency;
+
     public TransactionView() {}
-    
-    public TransactionView(int id, String employeeName, double amount, 
+
+    public TransactionView(int id, String employeeName, double amount,
                           LocalDate date, String time, String notes) {
         this.id = id;
         this.employeeName = employeeName;
-        this.amount = amount;
-        this.date = date;
-        this.time = time;
+        this.amountCents = Math.round(amount * 100);
+        this.occurredAt = Timestamps.toEpochSecond(date, Timestamps.parseTime(time));
+        this.notes = notes;
+    }
+
+    public TransactionView(int id, String employeeName, long amountCents, long occurredAt, String notes) {
+        this.id = id;
+        this.employeeName = employeeName;
+        this.amountCents = amountCents;
+        this.occurredAt = occurredAt;
         this.notes = notes;
     }
-    
+
     public int getId() {
         return id;
     }
-    
+
     public void setId(int id) {
         this.id = id;
     }
-    
+
     public String getEmployeeName() {
         return employeeName;
     }
-    
+
     public void setEmployeeName(String employeeName) {
         this.employeeName = employeeName;
     }
-    
+
     public double getAmount() {
-        return amount;
+        return amountCents / 100.0;
     }
-    
+
     public void setAmount(double amount) {
-        this.amount = amount;
+        setAmountCents(Math.round(amount * 100));
+    }
+
+    /** Amount in minor units (cents), as stored. */
+    public long getAmountCents() {
+        return amountCents;
     }
-    
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+        this.amountTextCurrency = null;
+    }
+
+    /**
+     * The amount as shown in tables, formatted once per currency setting. Every settings change
+     * publishes a new snapshot, so a cached text never outlives the settings it was made with.
+     */
+    public String getAmountText(CurrencySnapshot currency) {
+        if (amountTextCurrency != currency) {
+            amountText = currency.formatAmountClean(getAmount());
+            amountTextCurrency = currency;
+        }
+        return amountText;
+    }
+
     public LocalDate getDate() {
-        return date;
+        return Timestamps.toLocalDate(occurredAt);
     }
-    
+
     public void setDate(LocalDate date) {
-        this.date = date;
+        this.occurredAt = Timestamps.toEpochSecond(date, Timestamps.secondOfDay(occurredAt));
     }
-    
+
     public String getTime() {
-        return time;
+        return Timestamps.formatTime(Timestamps.secondOfDay(occurredAt));
     }
-    
+
     public void setTime(String time) {
-        this.time = time;
+        this.occurredAt = Timestamps.toEpochSecond(getDate(), Timestamps.parseTime(time));
     }
-    
+
+    /** Date and time as seconds since the epoch of the local wall clock, as stored. */
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(long occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public long getEpochDay() {
+        return Timestamps.epochDay(occurredAt);
+    }
+
     public String getNotes() {
         return notes;
     }
-    
+
     public void setNotes(String notes) {
         this.notes = notes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,237 @@
+package com.accounting.tools;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.Transaction;
+import com.accounting.util.Timestamps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills a database with a synthetic ledger for load testing.
+ *
+ * <pre>
+ * java -cp arabic-accounting-app-1.0.0.jar com.accounting.tools.LedgerGenerator \
+ *     --db=big.db --rows=10000000 --employees=200 --seed=1
+ * </pre>
+ *
+ * The same options and seed always produce the same rows. Volume is heavier on weekdays, in December
+ * and towards the end of the range; times cluster around midday; amounts are log-normal per table;
+ * some employees are much busier than others; a share of rows carries notes of varying length.
+ * Rows go through {@link DatabaseManager#saveTransactions} in large batches, one SQL transaction each,
+ * and the daily_totals rollup is maintained by its triggers on the way.
+ */
+public class LedgerGenerator {
+    private static final int BATCH_SIZE = 50_000;
+
+    private static final String[] TYPES = {"sales", "expenses", "profits"};
+    // Share of rows per table, and the median amount in cents
+    private static final double[] TYPE_SHARES = {0.5, 0.3, 0.2};
+    private static final double[] MEDIAN_CENTS = {15_000, 8_000, 30_000};
+    private static final double AMOUNT_SIGMA = 1.0;
+
+    private static final String[] NOTE_WORDS = {
+            "دفعة", "نقدا", "فاتورة", "رقم", "عميل", "مورد", "شحن", "صيانة", "إيجار", "كهرباء",
+            "رواتب", "خصم", "مرتجع", "تحويل", "بنكي", "شهر", "أول", "ثاني", "مقدم", "متبقي"
+    };
+
+    private long seed = 1;
+    private int employees = 50;
+    private long rows = 1_000_000;
+    private LocalDate lastDay = LocalDate.now();
+    private int days = 3 * 365;
+    private double notesRatio = 0.3;
+    private int maxNoteWords = 12;
+
+    public void setSeed(long seed) { this.seed = seed; }
+    public void setEmployees(int employees) { this.employees = employees; }
+    public void setRows(long rows) { this.rows = rows; }
+    public void setLastDay(LocalDate lastDay) { this.lastDay = lastDay; }
+    public void setDays(int days) { this.days = days; }
+    /** Share of rows that get a note, 0 to 1. */
+    public void setNotesRatio(double notesRatio) { this.notesRatio = notesRatio; }
+    public void setMaxNoteWords(int maxNoteWords) { this.maxNoteWords = maxNoteWords; }
+
+    /**
+     * Adds the employees (names "موظف 1" .. "موظف N", reused if present) and the transactions.
+     *
+     * @return the number of transactions inserted
+     */
+    public long generate(DatabaseManager dbManager) {
+        Random random = new Random(seed);
+        int[] employeeIds = createEmployees(dbManager);
+        double[] employeeWeights = cumulative(employeeWeights(employeeIds.length));
+        double[] dayWeights = cumulative(dayWeights());
+        double[] typeWeights = cumulative(TYPE_SHARES);
+        LocalDate firstDay = lastDay.minusDays(days - 1);
+
+        long inserted = 0;
+        long startTime = System.currentTimeMillis();
+        while (inserted < rows) {
+            int batch = (int) Math.min(BATCH_SIZE, rows - inserted);
+            Map<String, List<Transaction>> byType = new HashMap<>();
+            for (int i = 0; i < batch; i++) {
+                int type = pick(typeWeights, random);
+
+                Transaction transaction = new Transaction();
+                transaction.setEmployeeId(employeeIds[pick(employeeWeights, random)]);
+                transaction.setAmountCents(amountCents(type, random));
+                LocalDate date = firstDay.plusDays(pick(dayWeights, random));
+                transaction.setOccurredAt(Timestamps.toEpochSecond(date, secondOfDay(random)));
+                transaction.setNotes(note(random));
+                byType.computeIfAbsent(TYPES[type], key -> new ArrayList<>(batch)).add(transaction);
+            }
+
+            int saved = dbManager.saveTransactions(byType);
+            if (saved < 0) {
+                throw new IllegalStateException("Batch insert failed after " + inserted + " rows");
+            }
+            inserted += saved;
+
+            long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+            System.out.printf("%,d / %,d rows (%,d rows/s)%n", inserted, rows, inserted * 1000 / elapsed);
+        }
+        return inserted;
+    }
+
+    private int[] createEmployees(DatabaseManager dbManager) {
+        List<String> names = new ArrayList<>(employees);
+        for (int i = 1; i <= employees; i++) {
+            names.add("موظف " + i);
+        }
+        Map<String, Integer> ids = dbManager.getOrCreateEmployees(names);
+        if (ids.size() != names.size()) {
+            throw new IllegalStateException("Could not create the employees");
+        }
+        // In name order, so the seed alone decides who gets which row
+        return names.stream().mapToInt(ids::get).toArray();
+    }
+
+    // Zipf-like: employee k is about 1/k as busy as the first one
+    private static double[] employeeWeights(int count) {
+        double[] weights = new double[count];
+        for (int k = 0; k < count; k++) {
+            weights[k] = 1.0 / (k + 1);
+        }
+        return weights;
+    }
+
+    private double[] dayWeights() {
+        LocalDate firstDay = lastDay.minusDays(days - 1);
+        double[] weights = new double[days];
+        for (int i = 0; i < days; i++) {
+            LocalDate date = firstDay.plusDays(i);
+            double weight = 1.0 + i / (double) days;               // business grows over the range
+            if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
+                weight *= 0.2;
+            } else if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= 0.5;
+            }
+            if (date.getMonthValue() == 12) {
+                weight *= 1.5;
+            }
+            weights[i] = weight;
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] sums = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            sums[i] = total;
+        }
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] /= total;
+        }
+        return sums;
+    }
+
+    /** Index drawn with the probabilities given by a normalized cumulative table. */
+    private static int pick(double[] cumulative, Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        index = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    private static long amountCents(int type, Random random) {
+        long cents = Math.round(MEDIAN_CENTS[type] * Math.exp(AMOUNT_SIGMA * random.nextGaussian()));
+        return Math.max(100, cents);
+    }
+
+    // Opening hours 08:00-21:00, busiest around 13:00
+    private static int secondOfDay(Random random) {
+        double hour = 13 + 2.5 * random.nextGaussian();
+        hour = Math.max(8, Math.min(hour, 21 - 1.0 / 3600));
+        return (int) (hour * 3600);
+    }
+
+    private String note(Random random) {
+        if (random.nextDouble() >= notesRatio) {
+            return null;
+        }
+        // Mostly short notes, occasionally long ones
+        int words = Math.min(maxNoteWords, 1 + (int) (-Math.log(1 - random.nextDouble()) * 3));
+        StringBuilder note = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                note.append(' ');
+            }
+            note.append(NOTE_WORDS[random.nextInt(NOTE_WORDS.length)]);
+        }
+        return note.toString();
+    }
+
+    public static void main(String[] args) {
+        LedgerGenerator generator = new LedgerGenerator();
+        String db = "accounting.db";
+        boolean verify = false;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--db" -> db = value;
+                case "--seed" -> generator.setSeed(Long.parseLong(value));
+                case "--employees" -> generator.setEmployees(Integer.parseInt(value));
+                case "--rows" -> generator.setRows(Long.parseLong(value));
+                case "--last-day" -> generator.setLastDay(LocalDate.parse(value));
+                case "--days" -> generator.setDays(Integer.parseInt(value));
+                case "--notes-ratio" -> generator.setNotesRatio(Double.parseDouble(value));
+                case "--max-note-words" -> generator.setMaxNoteWords(Integer.parseInt(value));
+                case "--verify" -> verify = true;
+                default -> {
+                    System.err.println("Unknown option: " + arg);
+                    System.err.println("Options: --db=FILE --rows=N --employees=N --seed=N --last-day=YYYY-MM-DD "
+                            + "--days=N --notes-ratio=0..1 --max-note-words=N --verify");
+                    System.exit(2);
+                }
+            }
+        }
+
+        // Must be set before the database manager is first used
+        System.setProperty("accounting.db", db);
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        dbManager.initializeDatabase();
+
+        long startTime = System.currentTimeMillis();
+        long inserted = generator.generate(dbManager);
+        System.out.printf("Inserted %,d rows into %s in %.1fs%n", inserted, db,
+                (System.currentTimeMillis() - startTime) / 1000.0);
+
+        if (verify && !dbManager.verifyDailyTotals()) {
+            System.err.println("daily_totals does not match the transactions");
+            dbManager.closeConnection();
+            System.exit(1);
+        }
+        dbManager.closeConnection();
+    }
+}
@@ -0,0 +1,77 @@
+package com.accounting.util;
+
+/**
+ * Writes amounts into a caller's {@link StringBuilder} exactly as {@code DecimalFormat("#,##0.00")}
+ * and {@code DecimalFormat("#,##0")} with US symbols would, without allocating.
+ *
+ * The fast path covers every amount the application shows. For values it cannot format with
+ * certainty - infinities, NaN, magnitudes of 10^13 and above, negative zero, and values whose third
+ * decimal lies within rounding error of a HALF_EVEN tie - the methods append nothing and return
+ * false, and the caller formats with {@code DecimalFormat} instead.
+ */
+final class AmountFormatter {
+    private static final double MAX_FAST = 1e13;
+
+    private AmountFormatter() {}
+
+    /** Like {@code "#,##0.00"}: grouping, two decimals, HALF_EVEN. */
+    static boolean appendTwoDecimals(StringBuilder out, double value) {
+        if (!(Math.abs(value) < MAX_FAST)) {
+            return false;
+        }
+
+        double scaled = value * 100;
+        double fraction = scaled - Math.floor(scaled);
+        // The product may be off by half an ulp, so near .5 it cannot tell which way the exact value rounds
+        if (Math.abs(fraction - 0.5) <= 2 * Math.ulp(scaled)) {
+            return false;
+        }
+
+        long cents = (long) Math.rint(scaled);
+        if (cents == 0 && (value < 0 || Double.doubleToRawLongBits(value) == Long.MIN_VALUE)) {
+            return false; // DecimalFormat keeps the sign: "-0.00"
+        }
+
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        appendGrouped(out, cents / 100);
+        int decimals = (int) (cents % 100);
+        out.append('.').append((char) ('0' + decimals / 10)).append((char) ('0' + decimals % 10));
+        return true;
+    }
+
+    /** Like {@code "#,##0"} for a value that is already a whole number. */
+    static boolean appendWhole(StringBuilder out, double value) {
+        if (!(Math.abs(value) < MAX_FAST) || value != Math.floor(value)
+                || Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+            return false;
+        }
+
+        long whole = (long) value;
+        if (whole < 0) {
+            out.append('-');
+            whole = -whole;
+        }
+        appendGrouped(out, whole);
+        return true;
+    }
+
+    private static void appendGrouped(StringBuilder out, long value) {
+        if (value < 1000) {
+            out.append(value);
+            return;
+        }
+        appendGrouped(out, value / 1000);
+        int group = (int) (value % 1000);
+        out.append(',');
+        if (group < 100) {
+            out.append('0');
+        }
+        if (group < 10) {
+            out.append('0');
+        }
+        out.append(group);
+    }
+}
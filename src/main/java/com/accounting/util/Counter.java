@@ -0,0 +1,22 @@
+package com.accounting.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A monotonically increasing count, cheap to update from many threads. */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {}
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
@@ -1,28 +1,22 @@
 package com.accounting.util;
 
 import com.accounting.database.DatabaseManager;
+import com.accounting.database.DatabaseService;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class CurrencyManager {
     private static CurrencyManager instance;
 
     private final DatabaseManager dbManager;
-    private final DecimalFormat formatter;
 
-    // persisted in settings
-    private String currentCurrency;   // "Kz", "USD", "LBP"
-    private double exchangeRate;      // USD -> currentCurrency (e.g., 1 USD = 1.0 Kz if you want same)
+    // persisted in settings; replaced as a whole so currency and rate always match
+    private volatile CurrencySnapshot snapshot;
 
     private CurrencyManager() {
         dbManager = DatabaseManager.getInstance();
-
-        // Create formatter with English locale to ensure English numerals
-        DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
-        formatter = new DecimalFormat("#,##0.00", symbols);
-
         loadSettings();
     }
 
@@ -32,74 +26,72 @@ public class CurrencyManager {
     }
 
     // -------- settings --------
+    /** Reads currency and rate from the settings cache and publishes them. */
     public void loadSettings() {
         String currency = dbManager.getSetting("currency");
-        currentCurrency = (currency == null ? "Kz" : currency);  // default Kz
-
         String rateStr = dbManager.getSetting("exchange_rate");
-        if (rateStr == null) {
-            exchangeRate = 1.0; // default: 1 USD = 1 Kz
-        } else {
+
+        double rate = 1.0; // default: 1 USD = 1 Kz
+        if (rateStr != null) {
             try {
-                exchangeRate = Double.parseDouble(rateStr);
-                if (exchangeRate <= 0) exchangeRate = 1.0;
+                rate = Double.parseDouble(rateStr);
+                if (rate <= 0) rate = 1.0;
             } catch (NumberFormatException e) {
-                exchangeRate = 1.0;
+                rate = 1.0;
             }
         }
-    }
 
-    public void updateSettings(String currency, double rate) {
-        this.currentCurrency = currency;
-        this.exchangeRate = rate > 0 ? rate : this.exchangeRate;
+        snapshot = new CurrencySnapshot(currency == null ? "Kz" : currency, rate); // default Kz
+    }
 
-        dbManager.updateSetting("currency", this.currentCurrency);
-        dbManager.updateSetting("exchange_rate", String.valueOf(this.exchangeRate));
+    /**
+     * Saves currency and rate in one write and publishes them once it has committed.
+     * If the write fails the future completes with false and the current snapshot stays in use.
+     */
+    public CompletableFuture<Boolean> updateSettings(String currency, double rate) {
+        CurrencySnapshot updated = new CurrencySnapshot(currency, rate > 0 ? rate : snapshot.getExchangeRate());
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("currency", updated.getCurrency());
+        values.put("exchange_rate", String.valueOf(updated.getExchangeRate()));
+        return DatabaseService.getInstance().updateSettings(values).thenApply(saved -> {
+            if (saved) {
+                snapshot = updated;
+            }
+            return saved;
+        });
     }
 
-    public String getCurrentCurrency() { return currentCurrency; }
-    public double getExchangeRate() { return exchangeRate; }
+    /** Current settings; read it once when several values must belong together. */
+    public CurrencySnapshot getSnapshot() { return snapshot; }
+
+    public String getCurrentCurrency() { return snapshot.getCurrency(); }
+    public double getExchangeRate() { return snapshot.getExchangeRate(); }
 
     // -------- conversion (DB amounts are in USD) --------
     /** USD -> active currency (for display) */
     public double toActiveCurrency(double amountInUSD) {
-        if ("USD".equals(currentCurrency)) return amountInUSD;
-        return amountInUSD * exchangeRate;  // LBP or Kz or any other
+        return snapshot.toActiveCurrency(amountInUSD);
     }
 
     /** active currency -> USD (for saving user input) */
     public double fromActiveToUSD(double amountInActiveCurrency) {
-        if ("USD".equals(currentCurrency)) return amountInActiveCurrency;
-        return amountInActiveCurrency / (exchangeRate == 0 ? 1.0 : exchangeRate);
+        return snapshot.fromActiveToUSD(amountInActiveCurrency);
     }
 
     // -------- formatting --------
     public String getCurrencySymbol() {
-        if ("Kz".equals(currentCurrency)) return "Kz";
-        if ("USD".equals(currentCurrency)) return "$";
-        if ("LBP".equals(currentCurrency)) return "ل.ل";
-        return currentCurrency; // fallback: show whatever is stored
+        return snapshot.getSymbol();
     }
 
     // format a number + symbol ONLY (NO conversion)
     public String formatAmountSymbolOnly(double amount) {
-        return formatter.format(amount) + " " + getCurrencySymbol();
+        return snapshot.formatAmountSymbolOnly(amount);
     }
 
     /** Format a USD amount per active currency (does conversion + symbol) */
     public String formatAmount(double amountInUSD) {
-        double display = toActiveCurrency(amountInUSD);
-        String sym = getCurrencySymbol();
-
-        // Format the number with proper English numerals and clean decimals
-        String formattedNumber = formatter.format(display);
-
-        // Common style: symbol after for Kz and LBP, before for USD
-        if ("USD".equals(currentCurrency)) {
-            return sym + formattedNumber;      // $1,234.00
-        } else {
-            return formattedNumber + " " + sym; // 1,234.00 Kz  /  1,234.00 ل.ل
-        }
+        return snapshot.formatAmount(amountInUSD);
     }
 
     /**
@@ -107,26 +99,6 @@ public class CurrencyManager {
      * This makes the display cleaner for amounts like 1000.00 -> 1,000 Kz
      */
     public String formatAmountClean(double amountInUSD) {
-        double display = toActiveCurrency(amountInUSD);
-        String sym = getCurrencySymbol();
-
-        // Check if the number is a whole number
-        String formattedNumber;
-        if (display == Math.floor(display)) {
-            // It's a whole number, format without decimals
-            DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
-            DecimalFormat wholeFormatter = new DecimalFormat("#,##0", symbols);
-            formattedNumber = wholeFormatter.format(display);
-        } else {
-            // Has decimals, use regular formatter
-            formattedNumber = formatter.format(display);
-        }
-
-        // Common style: symbol after for Kz and LBP, before for USD
-        if ("USD".equals(currentCurrency)) {
-            return sym + formattedNumber;      // $1,234 or $1,234.50
-        } else {
-            return formattedNumber + " " + sym; // 1,234 Kz or 1,234.50 Kz
-        }
+        return snapshot.formatAmountClean(amountInUSD);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.accounting.util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Immutable currency settings: active currency, exchange rate and display symbol.
+ *
+ * {@link CurrencyManager} publishes a new instance on every change, so a caller that reads the
+ * snapshot once always sees a matching currency/rate pair, from any thread and without locking.
+ */
+public final class CurrencySnapshot {
+    // Amounts are built here by AmountFormatter; DecimalFormat only handles the rare values it declines.
+    // Neither is thread-safe, and amounts are also formatted on loader and export threads.
+    private static final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(32));
+    private static final ThreadLocal<DecimalFormat> formatter = ThreadLocal.withInitial(
+            () -> new DecimalFormat("#,##0.00", new DecimalFormatSymbols(Locale.US)));
+    private static final ThreadLocal<DecimalFormat> wholeFormatter = ThreadLocal.withInitial(
+            () -> new DecimalFormat("#,##0", new DecimalFormatSymbols(Locale.US)));
+
+    private final String currency;
+    private final double exchangeRate;
+    private final String symbol;
+
+    CurrencySnapshot(String currency, double exchangeRate) {
+        this.currency = currency;
+        this.exchangeRate = exchangeRate;
+        this.symbol = symbolOf(currency);
+    }
+
+    private static String symbolOf(String currency) {
+        if ("Kz".equals(currency)) return "Kz";
+        if ("USD".equals(currency)) return "$";
+        if ("LBP".equals(currency)) return "ل.ل";
+        return currency; // fallback: show whatever is stored
+    }
+
+    public String getCurrency() { return currency; }
+    public double getExchangeRate() { return exchangeRate; }
+    public String getSymbol() { return symbol; }
+
+    /** USD -> this currency */
+    public double toActiveCurrency(double amountInUSD) {
+        if ("USD".equals(currency)) return amountInUSD;
+        return amountInUSD * exchangeRate;
+    }
+
+    /** this currency -> USD */
+    public double fromActiveToUSD(double amountInActiveCurrency) {
+        if ("USD".equals(currency)) return amountInActiveCurrency;
+        return amountInActiveCurrency / (exchangeRate == 0 ? 1.0 : exchangeRate);
+    }
+
+    /** Number + symbol, no conversion */
+    public String formatAmountSymbolOnly(double amount) {
+        return format(amount, false, false);
+    }
+
+    /** Converts a USD amount and formats it with two decimals and the symbol */
+    public String formatAmount(double amountInUSD) {
+        return format(toActiveCurrency(amountInUSD), false, "USD".equals(currency));
+    }
+
+    /** Like {@link #formatAmount} but drops the decimals of whole numbers (1,000 Kz) */
+    public String formatAmountClean(double amountInUSD) {
+        double display = toActiveCurrency(amountInUSD);
+        return format(display, display == Math.floor(display), "USD".equals(currency));
+    }
+
+    // Common style: symbol after for Kz and LBP ("1,234.00 Kz"), before for USD ("$1,234.00")
+    private String format(double value, boolean whole, boolean symbolFirst) {
+        StringBuilder out = buffer.get();
+        out.setLength(0);
+        if (symbolFirst) {
+            out.append(symbol);
+        }
+
+        boolean done = whole ? AmountFormatter.appendWhole(out, value) : AmountFormatter.appendTwoDecimals(out, value);
+        if (!done) {
+            out.append((whole ? wholeFormatter : formatter).get().format(value));
+        }
+
+        if (!symbolFirst) {
+            out.append(' ').append(symbol);
+        }
+        return out.toString();
+    }
+}
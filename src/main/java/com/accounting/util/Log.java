@@ -0,0 +1,21 @@
+package com.accounting.util;
+
+/**
+ * Diagnostic output, silent unless the JVM is started with {@code -Daccounting.debug=true}.
+ * Errors still go to {@code System.err} / {@code printStackTrace()} as before.
+ */
+public class Log {
+    private static final boolean DEBUG = Boolean.getBoolean("accounting.debug");
+
+    private Log() {}
+
+    public static boolean isDebugEnabled() {
+        return DEBUG;
+    }
+
+    public static void debug(String message) {
+        if (DEBUG) {
+            System.out.println(message);
+        }
+    }
+}
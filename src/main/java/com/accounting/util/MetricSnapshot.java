@@ -0,0 +1,52 @@
+package com.accounting.util;
+
+/** One row of {@link MetricsRegistry#snapshot()}; latency values are NaN for counters and gauges. */
+public class MetricSnapshot {
+    private final String name;
+    private final long count;
+    private final double ratePerSecond;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final double meanMillis;
+
+    MetricSnapshot(String name, long count, double ratePerSecond,
+                   double p50Millis, double p99Millis, double maxMillis, double meanMillis) {
+        this.name = name;
+        this.count = count;
+        this.ratePerSecond = ratePerSecond;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+        this.meanMillis = meanMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /** Average throughput since startup. */
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+}
@@ -0,0 +1,63 @@
+package com.accounting.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide counters, gauges and latency timers, by name.
+ *
+ * Names are dotted, e.g. {@code db.transactionPage} or {@code ui.pageLoad.view-data}. Callers on hot
+ * paths look their metric up once and keep it in a field; updating one is a few atomic adds.
+ * Nothing is printed: the diagnostics page reads {@link #snapshot()}.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, LatencyTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    public LatencyTimer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new LatencyTimer());
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /** Reports the current value of {@code value} under {@code name}, replacing any earlier gauge of that name. */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public double getUptimeSeconds() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    /** Every timer, counter and gauge, sorted by name, with rates averaged over the uptime. */
+    public List<MetricSnapshot> snapshot() {
+        double uptime = Math.max(getUptimeSeconds(), 0.001);
+        List<MetricSnapshot> rows = new ArrayList<>();
+
+        timers.forEach((name, timer) -> rows.add(new MetricSnapshot(name, timer.getCount(),
+                timer.getCount() / uptime, timer.getPercentileMillis(0.50), timer.getPercentileMillis(0.99),
+                timer.getMaxMillis(), timer.getMeanMillis())));
+        counters.forEach((name, counter) -> rows.add(new MetricSnapshot(name, counter.get(),
+                counter.get() / uptime, Double.NaN, Double.NaN, Double.NaN, Double.NaN)));
+        gauges.forEach((name, gauge) -> rows.add(new MetricSnapshot(name, gauge.getAsLong(),
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN)));
+
+        rows.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return rows;
+    }
+}
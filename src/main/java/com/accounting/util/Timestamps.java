@@ -0,0 +1,79 @@
+package com.accounting.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversions for the stored {@code occurred_at} column.
+ *
+ * Transactions are stored as whole seconds since 1970-01-01T00:00 of the local wall clock
+ * (no time zone is applied), so the epoch day is simply {@code occurredAt / 86400} and the
+ * column sorts and range-filters as a plain integer.
+ */
+public class Timestamps {
+    public static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final DateTimeFormatter TIME_INPUT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+
+    private Timestamps() {}
+
+    public static long toEpochSecond(LocalDate date, int secondOfDay) {
+        return date.toEpochDay() * SECONDS_PER_DAY + secondOfDay;
+    }
+
+    /** First second of {@code date}. */
+    public static long startOfDay(LocalDate date) {
+        return date.toEpochDay() * SECONDS_PER_DAY;
+    }
+
+    /** Last second of {@code date}, for inclusive range filters. */
+    public static long endOfDay(LocalDate date) {
+        return (date.toEpochDay() + 1) * SECONDS_PER_DAY - 1;
+    }
+
+    public static long epochDay(long occurredAt) {
+        return Math.floorDiv(occurredAt, SECONDS_PER_DAY);
+    }
+
+    public static int secondOfDay(long occurredAt) {
+        return (int) Math.floorMod(occurredAt, SECONDS_PER_DAY);
+    }
+
+    public static LocalDate toLocalDate(long occurredAt) {
+        return LocalDate.ofEpochDay(epochDay(occurredAt));
+    }
+
+    /** Formats a second-of-day as {@code HH:mm}, the format used on the data entry page. */
+    public static String formatTime(int secondOfDay) {
+        int minutes = secondOfDay / 60;
+        int hour = minutes / 60;
+        int minute = minutes % 60;
+        return (hour < 10 ? "0" : "") + hour + ":" + (minute < 10 ? "0" : "") + minute;
+    }
+
+    /** Formats a second-of-day as {@code HH:mm:ss}, for exports that must keep every stored second. */
+    public static String formatTimeWithSeconds(int secondOfDay) {
+        int second = secondOfDay % 60;
+        return formatTime(secondOfDay) + ":" + (second < 10 ? "0" : "") + second;
+    }
+
+    /**
+     * Parses a user-entered time such as {@code 9:05} or {@code 14:30}.
+     *
+     * @throws DateTimeParseException if the text is not a valid time of day
+     */
+    public static int parseTime(String text) {
+        return LocalTime.parse(text.trim(), TIME_INPUT).toSecondOfDay();
+    }
+
+    public static boolean isValidTime(String text) {
+        try {
+            parseTime(text);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
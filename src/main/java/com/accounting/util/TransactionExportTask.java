@@ -0,0 +1,119 @@
+package com.accounting.util;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.TransactionView;
+import javafx.concurrent.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exports every transaction of a date range, followed by the period summary, to a CSV file.
+ *
+ * Rows are streamed from {@link DatabaseManager#streamTransactions} straight into a buffered
+ * writer over a {@link FileChannel}, so memory use does not depend on the size of the range.
+ * Progress is reported against the row counts of the period summary. When cancelled, the
+ * partially written file is deleted. Times are written with seconds, so an import restores them exactly.
+ */
+public class TransactionExportTask extends Task<Long> {
+    static final String[] TYPES = {"sales", "expenses", "profits"};
+    static final String[] TYPE_LABELS = {"المبيعات", "المصروفات", "الأرباح"};
+
+    /** First cell of the row that starts the summary section; the import stops there. */
+    static final String SUMMARY_LABEL = "الملخص";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final Path target;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+
+    private long written;
+    private long expected;
+
+    public TransactionExportTask(Path target, LocalDate fromDate, LocalDate toDate) {
+        this.target = target;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        // One snapshot for the whole file, even if the currency is changed meanwhile
+        CurrencySnapshot currency = CurrencyManager.getInstance().getSnapshot();
+
+        PeriodSummary summary = dbManager.getPeriodSummary(fromDate, toDate);
+        expected = summary.getSalesCount() + summary.getExpensesCount() + summary.getProfitsCount();
+        updateProgress(0, Math.max(expected, 1));
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+
+            // Byte order mark so spreadsheet programs detect UTF-8 and show Arabic text correctly
+            writer.write('\uFEFF');
+            CsvUtil.writeRow(writer, "النوع", "الموظف", "المبلغ", "التاريخ", "الوقت", "ملاحظات");
+
+            for (int i = 0; i < TYPES.length; i++) {
+                String label = TYPE_LABELS[i];
+                dbManager.streamTransactions(TYPES[i], fromDate, toDate, row -> writeRow(writer, label, row, currency));
+            }
+
+            writer.write("\r\n");
+            CsvUtil.writeRow(writer, SUMMARY_LABEL, "", "المبلغ");
+            CsvUtil.writeRow(writer, "إجمالي المبيعات", "", currency.formatAmount(summary.getTotalSales()));
+            CsvUtil.writeRow(writer, "إجمالي المصروفات", "", currency.formatAmount(summary.getTotalExpenses()));
+            CsvUtil.writeRow(writer, "إجمالي الأرباح", "", currency.formatAmount(summary.getTotalProfits()));
+            CsvUtil.writeRow(writer, "صافي الربح", "", currency.formatAmount(summary.getNetProfit()));
+
+        } catch (CancellationException | UncheckedIOException e) {
+            Files.deleteIfExists(target);
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            return written;
+        } catch (IllegalStateException e) {
+            // Reading the database failed part way; fail the task rather than leave a short file
+            Files.deleteIfExists(target);
+            throw e;
+        }
+
+        updateProgress(expected, Math.max(expected, 1));
+        return written;
+    }
+
+    private void writeRow(Writer writer, String label, TransactionView row, CurrencySnapshot currency) {
+        if (isCancelled()) {
+            // Unwinds the database cursor; call() removes the partial file
+            throw new CancellationException();
+        }
+
+        try {
+            CsvUtil.writeRow(writer, label, row.getEmployeeName(),
+                    currency.formatAmount(row.getAmount()),
+                    row.getDate().toString(),
+                    Timestamps.formatTimeWithSeconds(Timestamps.secondOfDay(row.getOccurredAt())),
+                    row.getNotes());
+        } catch (IOException e) {
+            // Carried out of the row consumer; call() removes the partial file and rethrows the cause
+            throw new UncheckedIOException(e);
+        }
+
+        if (++written % PROGRESS_INTERVAL == 0) {
+            updateProgress(written, Math.max(expected, 1));
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.accounting.util;
+
+import com.accounting.database.DatabaseManager;
+import com.accounting.model.Employee;
+import com.accounting.model.Transaction;
+import javafx.concurrent.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Imports historical transactions from a CSV file in the layout written by {@link TransactionExportTask}:
+ * type, employee, amount, date, time, notes. The first line is a header and is skipped, and reading
+ * stops at the summary section of an exported file.
+ *
+ * Exported amounts are in the currency that was active at export time. Amounts marked with {@code $}
+ * are taken as USD; all others are converted back from the currency active when the import starts.
+ *
+ * The file is read sequentially and cut into chunks of raw records, which are parsed on a small pool
+ * of worker threads. Parsed chunks are written back in file order by this task's thread alone, each
+ * chunk as one batched SQL transaction; unknown employee names are created on the way. Rows that cannot
+ * be parsed or saved are listed with their line number in an error report next to the source file.
+ * Chunks committed before a cancellation stay imported.
+ */
+public class TransactionImportTask extends Task<TransactionImportTask.Result> {
+    private static final int CHUNK_SIZE = 20_000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter DATE_INPUT = DateTimeFormatter.ofPattern("[uuuu-MM-dd][d/M/uuuu]");
+    private static final Pattern AMOUNT = Pattern.compile("-?\\d[\\d,]*(\\.\\d+)?");
+    private static final Map<String, String> TYPE_NAMES = typeNames();
+
+    private final Path source;
+    private final Path reportPath;
+    private final Map<String, Integer> employeeIds = new HashMap<>();
+
+    private Writer report;
+    private long imported;
+    private long errorCount;
+    private int employeesCreated;
+
+    public TransactionImportTask(Path source) {
+        this.source = source;
+        String fileName = source.getFileName().toString();
+        this.reportPath = source.resolveSibling(fileName.replaceFirst("\\.csv$", "") + ".errors.csv");
+    }
+
+    private static Map<String, String> typeNames() {
+        Map<String, String> names = new HashMap<>();
+        for (int i = 0; i < TransactionExportTask.TYPES.length; i++) {
+            names.put(TransactionExportTask.TYPES[i], TransactionExportTask.TYPES[i]);
+            names.put(TransactionExportTask.TYPE_LABELS[i], TransactionExportTask.TYPES[i]);
+            // Without the definite article: "مبيعات", "مصروفات", "أرباح"
+            names.put(TransactionExportTask.TYPE_LABELS[i].substring(2), TransactionExportTask.TYPES[i]);
+        }
+        return names;
+    }
+
+    @Override
+    protected Result call() throws Exception {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        // One snapshot, so a settings change during the import cannot mix two rates
+        CurrencySnapshot currency = CurrencyManager.getInstance().getSnapshot();
+        Files.deleteIfExists(reportPath);
+        for (Employee employee : dbManager.getAllEmployees()) {
+            employeeIds.put(employee.getName(), employee.getId());
+        }
+
+        // The task thread reads and writes; the remaining cores parse
+        int parserCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService parsers = Executors.newFixedThreadPool(parserCount, runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Bounded so a slow writer does not let parsed chunks pile up in memory
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parserCount * 2;
+
+        try (FileChannel channel = FileChannel.open(source);
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8),
+                     READ_BUFFER_SIZE)) {
+
+            long size = Math.max(channel.size(), 1);
+            updateProgress(0, size);
+
+            int lineNumber = 1;
+            String header = CsvUtil.readRecord(reader);
+            if (header == null) {
+                return new Result(0, 0, 0, null);
+            }
+            lineNumber += countLines(header);
+
+            List<String> records = new ArrayList<>(CHUNK_SIZE);
+            int chunkStartLine = lineNumber;
+            String record;
+            while (!isCancelled() && (record = CsvUtil.readRecord(reader)) != null) {
+                if (record.startsWith(TransactionExportTask.SUMMARY_LABEL + ",")) {
+                    break;
+                }
+                records.add(record);
+                lineNumber += countLines(record);
+
+                if (records.size() == CHUNK_SIZE) {
+                    inFlight.add(parsers.submit(new ChunkParser(records, chunkStartLine, currency)));
+                    records = new ArrayList<>(CHUNK_SIZE);
+                    chunkStartLine = lineNumber;
+                }
+
+                while (inFlight.size() >= maxInFlight && !isCancelled()) {
+                    writeChunk(dbManager, inFlight.poll().get());
+                    updateProgress(channel.position(), size);
+                }
+            }
+
+            if (!records.isEmpty() && !isCancelled()) {
+                inFlight.add(parsers.submit(new ChunkParser(records, chunkStartLine, currency)));
+            }
+            while (!inFlight.isEmpty() && !isCancelled()) {
+                writeChunk(dbManager, inFlight.poll().get());
+            }
+            updateProgress(size, size);
+
+        } finally {
+            parsers.shutdownNow();
+            if (report != null) {
+                report.close();
+            }
+        }
+
+        return new Result(imported, errorCount, employeesCreated, report != null ? reportPath : null);
+    }
+
+    private static int countLines(String record) {
+        int lines = 1;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private void writeChunk(DatabaseManager dbManager, ParsedChunk chunk) throws IOException {
+        for (RowError error : chunk.errors) {
+            reportError(error.line, error.message, error.record);
+        }
+        if (chunk.rows.isEmpty()) {
+            return;
+        }
+
+        Set<String> newNames = new HashSet<>();
+        for (ParsedRow row : chunk.rows) {
+            if (!employeeIds.containsKey(row.employeeName)) {
+                newNames.add(row.employeeName);
+            }
+        }
+        if (!newNames.isEmpty()) {
+            Map<String, Integer> created = dbManager.getOrCreateEmployees(newNames);
+            employeeIds.putAll(created);
+            employeesCreated += created.size();
+        }
+
+        Map<String, List<Transaction>> byType = new HashMap<>();
+        List<ParsedRow> saved = new ArrayList<>(chunk.rows.size());
+        for (ParsedRow row : chunk.rows) {
+            Integer employeeId = employeeIds.get(row.employeeName);
+            if (employeeId == null) {
+                reportError(row.line, "تعذر إضافة الموظف", row.employeeName);
+                continue;
+            }
+            row.transaction.setEmployeeId(employeeId);
+            byType.computeIfAbsent(row.type, type -> new ArrayList<>()).add(row.transaction);
+            saved.add(row);
+        }
+
+        int inserted = dbManager.saveTransactions(byType);
+        if (inserted < 0) {
+            for (ParsedRow row : saved) {
+                reportError(row.line, "تعذر الحفظ في قاعدة البيانات", row.employeeName);
+            }
+        } else {
+            imported += inserted;
+        }
+    }
+
+    private void reportError(int line, String message, String record) throws IOException {
+        if (report == null) {
+            report = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8);
+            report.write('\uFEFF');
+            CsvUtil.writeRow(report, "السطر", "الخطأ", "البيانات");
+        }
+        CsvUtil.writeRow(report, String.valueOf(line), message, record);
+        errorCount++;
+    }
+
+    /** Converts raw records to transactions; runs on the parser pool. */
+    private static class ChunkParser implements Callable<ParsedChunk> {
+        private final List<String> records;
+        private final int startLine;
+        private final CurrencySnapshot currency;
+
+        ChunkParser(List<String> records, int startLine, CurrencySnapshot currency) {
+            this.records = records;
+            this.startLine = startLine;
+            this.currency = currency;
+        }
+
+        @Override
+        public ParsedChunk call() {
+            ParsedChunk chunk = new ParsedChunk(records.size());
+            int line = startLine;
+            for (String record : records) {
+                if (!record.isBlank()) {
+                    try {
+                        chunk.rows.add(parseRow(line, CsvUtil.parseRecord(record)));
+                    } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                        chunk.errors.add(new RowError(line, e.getMessage(), record));
+                    }
+                }
+                line += countLines(record);
+            }
+            return chunk;
+        }
+
+        private ParsedRow parseRow(int line, String[] fields) {
+            if (fields.length < 5) {
+                throw new IllegalArgumentException("عدد الأعمدة غير كافٍ");
+            }
+
+            String type = TYPE_NAMES.get(fields[0].trim());
+            if (type == null) {
+                throw new IllegalArgumentException("نوع غير معروف: " + fields[0]);
+            }
+
+            String employeeName = fields[1].trim();
+            if (employeeName.isEmpty()) {
+                throw new IllegalArgumentException("اسم الموظف فارغ");
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setAmountCents(parseAmountCents(fields[2]));
+            try {
+                transaction.setDate(LocalDate.parse(fields[3].trim(), DATE_INPUT));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("تاريخ غير صحيح: " + fields[3]);
+            }
+            try {
+                transaction.setTime(fields[4].isBlank() ? "00:00" : fields[4]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("وقت غير صحيح: " + fields[4]);
+            }
+            if (fields.length > 5 && !fields[5].isEmpty()) {
+                transaction.setNotes(fields[5]);
+            }
+
+            return new ParsedRow(line, type, employeeName, transaction);
+        }
+
+        /** Accepts amounts as exported, e.g. {@code 1,234.50 Kz} or {@code $1,234.50}, and returns USD cents. */
+        private long parseAmountCents(String text) {
+            Matcher matcher = AMOUNT.matcher(text);
+            if (!matcher.find()) {
+                throw new IllegalArgumentException("مبلغ غير صحيح: " + text);
+            }
+
+            BigDecimal amount = new BigDecimal(matcher.group().replace(",", ""));
+            if (amount.signum() < 0) {
+                throw new IllegalArgumentException("المبلغ سالب: " + text);
+            }
+            if (text.contains("$") || "USD".equals(currency.getCurrency())) {
+                // Same rounding as Transaction.setAmount
+                return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            }
+            return Math.round(currency.fromActiveToUSD(amount.doubleValue()) * 100);
+        }
+    }
+
+    private static class ParsedChunk {
+        final List<ParsedRow> rows;
+        final List<RowError> errors = new ArrayList<>();
+
+        ParsedChunk(int capacity) {
+            rows = new ArrayList<>(capacity);
+        }
+    }
+
+    private static class ParsedRow {
+        final int line;
+        final String type;
+        final String employeeName;
+        final Transaction transaction;
+
+        ParsedRow(int line, String type, String employeeName, Transaction transaction) {
+            this.line = line;
+            this.type = type;
+            this.employeeName = employeeName;
+            this.transaction = transaction;
+        }
+    }
+
+    private static class RowError {
+        final int line;
+        final String message;
+        final String record;
+
+        RowError(int line, String message, String record) {
+            this.line = line;
+            this.message = message;
+            this.record = record;
+        }
+    }
+
+    /** Outcome of an import. */
+    public static class Result {
+        private final long imported;
+        private final long errorCount;
+        private final int employeesCreated;
+        private final Path reportPath;
+
+        Result(long imported, long errorCount, int employeesCreated, Path reportPath) {
+            this.imported = imported;
+            this.errorCount = errorCount;
+            this.employeesCreated = employeesCreated;
+            this.reportPath = reportPath;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        /** Rows that were skipped; each is listed in the report. */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public int getEmployeesCreated() {
+            return employeesCreated;
+        }
+
+        /** The error report, or null if every row was imported. */
+        public Path getReportPath() {
+            return reportPath;
+        }
+    }
+}
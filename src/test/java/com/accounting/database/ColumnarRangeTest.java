@@ -0,0 +1,134 @@
+package com.accounting.database;
+
+import com.accounting.model.PeriodSummary;
+import com.accounting.model.TransactionFilter;
+import com.accounting.model.TransactionView;
+import com.accounting.tools.LedgerGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Everything answered from memory must match the SQL queries over the same ledger. */
+class ColumnarRangeTest {
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+    private static final LocalDate FIRST_DAY = LAST_DAY.minusDays(59);
+    private static final List<String> TYPES = List.of("sales", "expenses", "profits");
+
+    private static DatabaseManager dbManager;
+    private static ColumnarRange range;
+    private static int employeeId;
+
+    @BeforeAll
+    static void openLedger(@TempDir Path dir) {
+        // Read once by DatabaseManager, so it has to be set before the first getInstance()
+        System.setProperty("accounting.db", dir.resolve("ledger.db").toString());
+        dbManager = DatabaseManager.getInstance();
+        dbManager.initializeDatabase();
+
+        LedgerGenerator generator = new LedgerGenerator();
+        generator.setSeed(7);
+        generator.setEmployees(8);
+        generator.setRows(20_000);
+        generator.setLastDay(LAST_DAY);
+        generator.setDays(60);
+        generator.generate(dbManager);
+
+        range = dbManager.loadColumns(FIRST_DAY, LAST_DAY, Integer.MAX_VALUE);
+        employeeId = dbManager.getEmployeeNames().keySet().iterator().next();
+    }
+
+    @AfterAll
+    static void close() {
+        dbManager.closeConnection();
+    }
+
+    @Test
+    void holdsTheWholeRange() {
+        PeriodSummary all = dbManager.getPeriodSummary(FIRST_DAY, LAST_DAY);
+        assertEquals(all.getSalesCount() + all.getExpensesCount() + all.getProfitsCount(), range.size());
+        assertTrue(range.covers(FIRST_DAY.plusDays(3), LAST_DAY));
+        assertFalse(range.covers(FIRST_DAY.minusDays(1), LAST_DAY));
+        assertNull(dbManager.loadColumns(FIRST_DAY, LAST_DAY, range.size() - 1));
+    }
+
+    @Test
+    void summariesMatchSql() {
+        for (LocalDate[] dates : dateRanges()) {
+            for (TransactionFilter filter : filters()) {
+                assertEquals(values(dbManager.getPeriodSummary(dates[0], dates[1], filter)),
+                        values(range.summarize(dates[0], dates[1], filter)));
+            }
+        }
+    }
+
+    @Test
+    void pagesMatchSql() {
+        for (String type : TYPES) {
+            for (TransactionFilter filter : filters()) {
+                int[] selection = range.select(type, FIRST_DAY, LAST_DAY.minusDays(7), filter);
+                TransactionView after = null;
+                List<TransactionView> page;
+                do {
+                    page = dbManager.getTransactionPage(type, FIRST_DAY, LAST_DAY.minusDays(7), filter, after, 500);
+                    List<TransactionView> inMemory = range.rows(type, selection,
+                            range.positionAfter(type, selection, after), 500);
+                    assertEquals(keys(page), keys(inMemory));
+                    after = page.isEmpty() ? null : page.get(page.size() - 1);
+                } while (page.size() == 500);
+            }
+        }
+    }
+
+    @Test
+    void withoutDropsOneRowFromTheCopy() {
+        TransactionView row = dbManager.getTransactionPage("expenses", FIRST_DAY, LAST_DAY, null, 1).get(0);
+        ColumnarRange smaller = range.without("expenses", row.getId(), row.getOccurredAt());
+
+        assertEquals(range.size() - 1, smaller.size());
+        PeriodSummary before = range.summarize(FIRST_DAY, LAST_DAY, TransactionFilter.NONE);
+        assertEquals(values(before.without("expenses", row.getAmountCents())),
+                values(smaller.summarize(FIRST_DAY, LAST_DAY, TransactionFilter.NONE)));
+        assertSame(smaller, smaller.without("expenses", row.getId(), row.getOccurredAt()));
+    }
+
+    private static List<LocalDate[]> dateRanges() {
+        return List.of(
+                new LocalDate[] {FIRST_DAY, LAST_DAY},
+                new LocalDate[] {FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20)},
+                new LocalDate[] {LAST_DAY, LAST_DAY});
+    }
+
+    private static List<TransactionFilter> filters() {
+        return List.of(
+                TransactionFilter.NONE,
+                new TransactionFilter(employeeId, Long.MIN_VALUE, Long.MAX_VALUE),
+                new TransactionFilter(0, 1_000, 50_000),
+                new TransactionFilter(employeeId, 5_000, Long.MAX_VALUE),
+                new TransactionFilter(Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    private static List<Long> values(PeriodSummary summary) {
+        return List.of(summary.getSalesCents(), summary.getSalesCount(), summary.getExpensesCents(),
+                summary.getExpensesCount(), summary.getProfitsCents(), summary.getProfitsCount());
+    }
+
+    private static List<String> keys(List<TransactionView> rows) {
+        List<String> keys = new ArrayList<>(rows.size());
+        for (TransactionView row : rows) {
+            keys.add(row.getId() + "/" + row.getOccurredAt() + "/" + row.getAmountCents() + "/" + row.getEmployeeName());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,180 @@
+package com.accounting.database;
+
+import com.accounting.util.Timestamps;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates a database in the layout written before versioning (user_version 0: REAL amounts,
+ * TEXT date and time) and checks what every step made of the legacy rows.
+ */
+class SchemaMigratorTest {
+    private static final LocalDate MAY_1 = LocalDate.of(2024, 5, 1);
+    private static final LocalDate MAY_2 = LocalDate.of(2024, 5, 2);
+
+    @TempDir
+    Path dir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void createLegacyDatabase() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("legacy.db"));
+        execute("CREATE TABLE employees (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE)");
+        for (String table : List.of("sales", "expenses", "profits")) {
+            execute("CREATE TABLE " + table + " (id INTEGER PRIMARY KEY AUTOINCREMENT, employee_id INTEGER NOT NULL, "
+                    + "amount REAL NOT NULL, date TEXT NOT NULL, time TEXT NOT NULL, notes TEXT)");
+        }
+        execute("CREATE TABLE settings (key TEXT PRIMARY KEY, value TEXT NOT NULL)");
+
+        execute("INSERT INTO employees (id, name) VALUES (1, 'أحمد'), (2, 'Sara')");
+        execute("""
+                INSERT INTO sales (id, employee_id, amount, date, time, notes) VALUES
+                (1, 1, 19.99, '2024-05-01', '9:45', 'فاتورة مُحدَّدة'),
+                (2, 2, 5.5, '2024-05-01', '14:30:15', 'cash'),
+                (3, 1, 100, '2024-05-02', 'later', '')
+                """);
+        execute("INSERT INTO expenses (id, employee_id, amount, date, time, notes) VALUES "
+                + "(1, 2, 7.25, '2024-05-01', '08:00', NULL)");
+        // A deleted row whose id must not be handed out again
+        execute("INSERT INTO profits (id, employee_id, amount, date, time) VALUES (7, 1, 1, '2024-05-01', '10:00')");
+        execute("DELETE FROM profits WHERE id = 7");
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void migratesLegacyRows() throws SQLException {
+        assertEquals(SchemaMigrator.latestVersion(), new SchemaMigrator().migrate(connection));
+        assertEquals(SchemaMigrator.latestVersion(), queryLong("PRAGMA user_version"));
+
+        assertEquals(List.of(1999L, at(MAY_1, "9:45")), row("sales", 1));
+        assertEquals(List.of(550L, at(MAY_1, "14:30:15")), row("sales", 2));
+        // Not a time at all: the row keeps its day (and is reported on stderr)
+        assertEquals(List.of(10000L, at(MAY_2, "0:00")), row("sales", 3));
+        assertEquals(List.of(725L, at(MAY_1, "8:00")), row("expenses", 1));
+
+        assertEquals(4, queryLong("SELECT COUNT(*) FROM daily_totals"));
+        assertEquals(List.of(1999L, 1L), dailyTotal(MAY_1, "sales", 1));
+        assertEquals(List.of(550L, 1L), dailyTotal(MAY_1, "sales", 2));
+        assertEquals(List.of(10000L, 1L), dailyTotal(MAY_2, "sales", 1));
+        assertEquals(List.of(725L, 1L), dailyTotal(MAY_1, "expenses", 2));
+
+        // Found without the diacritics; rowid = id * 4 + type code
+        assertEquals(List.of(4L), search("فاتورة محددة"));
+        assertEquals(List.of(8L), search("CASH"));
+
+        execute("INSERT INTO profits (employee_id, amount_cents, occurred_at) VALUES (1, 100, 0)");
+        assertEquals(8, queryLong("SELECT MAX(id) FROM profits"));
+    }
+
+    @Test
+    void triggersKeepRollupAndIndexCurrent() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        execute("INSERT INTO sales (employee_id, amount_cents, occurred_at, notes) VALUES (1, 1, "
+                + at(MAY_1, "23:59") + ", 'إيصال')");
+        assertEquals(List.of(2000L, 2L), dailyTotal(MAY_1, "sales", 1));
+        assertEquals(List.of(16L), search("ايصال"));
+
+        execute("DELETE FROM sales WHERE id = 1");
+        assertEquals(List.of(1L, 1L), dailyTotal(MAY_1, "sales", 1));
+        assertEquals(List.of(), search("فاتورة"));
+
+        execute("DELETE FROM sales WHERE id = 4");
+        assertEquals(List.of(), dailyTotal(MAY_1, "sales", 1));
+    }
+
+    @Test
+    void unreadableDateStopsTheUpgrade() throws SQLException {
+        execute("INSERT INTO expenses (id, employee_id, amount, date, time) VALUES (2, 1, 3, '01/05/2024', '10:00')");
+
+        SQLException failure = assertThrows(SQLException.class, () -> new SchemaMigrator().migrate(connection));
+        assertTrue(failure.getMessage().startsWith("Migration 3 "), failure.getMessage());
+        assertTrue(failure.getCause().getMessage().contains("expenses #2 '01/05/2024'"), failure.getCause().getMessage());
+
+        // Rolled back to the step before, with the legacy columns untouched
+        assertEquals(2, queryLong("PRAGMA user_version"));
+        assertEquals(List.of(300L), queryRow("SELECT amount * 100 FROM expenses WHERE id = 2"));
+    }
+
+    @Test
+    void migratingAgainChangesNothing() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+        assertEquals(0, new SchemaMigrator().migrate(connection));
+    }
+
+    private static long at(LocalDate date, String time) {
+        return Timestamps.toEpochSecond(date, Timestamps.parseTime(time));
+    }
+
+    private List<Long> row(String table, int id) throws SQLException {
+        return queryRow("SELECT amount_cents, occurred_at FROM " + table + " WHERE id = ?", id);
+    }
+
+    private List<Long> dailyTotal(LocalDate day, String type, int employeeId) throws SQLException {
+        return queryRow("SELECT total_cents, row_count FROM daily_totals WHERE epoch_day = ? AND type = ? "
+                + "AND employee_id = ?", day.toEpochDay(), type, employeeId);
+    }
+
+    private List<Long> search(String words) throws SQLException {
+        List<Long> rowids = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT rowid FROM notes_fts WHERE notes_fts MATCH ? ORDER BY rowid")) {
+            stmt.setString(1, SearchText.toMatchQuery(words));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rowids.add(rs.getLong(1));
+                }
+            }
+        }
+        return rowids;
+    }
+
+    private List<Long> queryRow(String sql, Object... params) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                        values.add(rs.getLong(i));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        return queryRow(sql).get(0);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
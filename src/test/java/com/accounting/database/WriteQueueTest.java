@@ -0,0 +1,116 @@
+package com.accounting.database;
+
+import com.accounting.util.Counter;
+import com.accounting.util.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteQueueTest {
+    private static final Counter GROUPS = MetricsRegistry.getInstance().counter("db.writeQueue.groups");
+
+    @TempDir
+    Path dir;
+
+    private ConnectionPool pool;
+    private WriteQueue queue;
+
+    @BeforeEach
+    void open() throws SQLException {
+        pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("queue.db"), 1);
+        try (PooledConnection conn = pool.acquireWriter()) {
+            conn.createStatement().execute("CREATE TABLE items (value INTEGER NOT NULL UNIQUE)");
+        }
+        queue = new WriteQueue(pool);
+    }
+
+    @AfterEach
+    void close() {
+        queue.shutdown();
+        pool.close();
+    }
+
+    @Test
+    void futureCompletesOnlyOnceTheWriteIsVisibleToReaders() throws Exception {
+        CompletableFuture<Boolean> visible = queue.submit(insert(1)).thenApply(inserted -> readValues().contains(1));
+        assertTrue(visible.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingCommandIsRolledBackWithoutItsGroup() throws Exception {
+        long groupsBefore = GROUPS.get();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // Holding the writer parks the queue, so the next commands are all waiting when it resumes
+        try (PooledConnection ignored = pool.acquireWriter()) {
+            futures.add(queue.submit(insert(1)));
+            Thread.sleep(50);
+            futures.add(queue.submit(insert(2)));
+            futures.add(queue.submit(insert(1)));  // duplicate of an earlier value
+            futures.add(queue.submit(insert(3)));
+        }
+
+        assertEquals(1, futures.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(1, futures.get(3).get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> futures.get(2).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, failure.getCause());
+
+        assertEquals(List.of(1, 2, 3), readValues());
+        // Groups are counted after their futures complete; stopping the writer waits for that
+        queue.shutdown();
+        assertEquals(2, GROUPS.get() - groupsBefore);
+    }
+
+    @Test
+    void shutdownCommitsQueuedWritesAndRejectsNewOnes() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(queue.submit(insert(i)));
+        }
+        queue.shutdown();
+
+        for (CompletableFuture<Integer> future : futures) {
+            assertTrue(future.isDone());
+        }
+        assertEquals(1000, readValues().size());
+        assertThrows(ExecutionException.class, () -> queue.submit(insert(-1)).get(5, TimeUnit.SECONDS));
+    }
+
+    private static WriteQueue.Command<Integer> insert(int value) {
+        return conn -> {
+            PreparedStatement stmt = conn.prepareCached("INSERT INTO items (value) VALUES (?)");
+            stmt.setInt(1, value);
+            return stmt.executeUpdate();
+        };
+    }
+
+    private List<Integer> readValues() {
+        List<Integer> values = new ArrayList<>();
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.createStatement().executeQuery("SELECT value FROM items ORDER BY value")) {
+            while (rs.next()) {
+                values.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return values;
+    }
+}
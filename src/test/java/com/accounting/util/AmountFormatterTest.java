@@ -0,0 +1,81 @@
+package com.accounting.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The fast path must write exactly what DecimalFormat writes, or decline. */
+class AmountFormatterTest {
+    private final DecimalFormat twoDecimals = new DecimalFormat("#,##0.00", new DecimalFormatSymbols(Locale.US));
+    private final DecimalFormat whole = new DecimalFormat("#,##0", new DecimalFormatSymbols(Locale.US));
+
+    @Test
+    void storedAmountsAlwaysTakeTheFastPath() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            // Any cents value the database can hold for a realistic amount
+            double amount = random.nextLong(1_000_000_000_000L) / 100.0;
+            assertTwoDecimals(amount, true);
+            assertTwoDecimals(-amount, amount != 0);
+        }
+    }
+
+    @Test
+    void convertedAmountsMatchDecimalFormat() {
+        Random random = new Random(2);
+        double[] rates = {0.0011, 1.0 / 3, 2, 850.5, 89_500};
+        for (int i = 0; i < 200_000; i++) {
+            double converted = random.nextInt(100_000_000) / 100.0 * rates[i % rates.length];
+            assertTwoDecimals(converted, false);
+            double rounded = Math.floor(converted);
+            assertWhole(rounded, true);
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        assertTwoDecimals(0, true);
+        assertTwoDecimals(999.995, false);
+        assertTwoDecimals(1_234_567.891, true);
+        assertTwoDecimals(9_999_999_999_999.99, false);
+        assertTwoDecimals(-0.001, false);
+
+        assertWhole(0, true);
+        assertWhole(1_000, true);
+        assertWhole(-1_234_567, true);
+
+        StringBuilder out = new StringBuilder();
+        assertFalse(AmountFormatter.appendTwoDecimals(out, Double.NaN));
+        assertFalse(AmountFormatter.appendTwoDecimals(out, Double.POSITIVE_INFINITY));
+        assertFalse(AmountFormatter.appendTwoDecimals(out, 1e13));
+        assertFalse(AmountFormatter.appendWhole(out, -0.0));
+        assertFalse(AmountFormatter.appendWhole(out, 1.5));
+        assertEquals("", out.toString());
+    }
+
+    /** Checks the output whenever the fast path accepts {@code value}; {@code mustAccept} also requires it to. */
+    private void assertTwoDecimals(double value, boolean mustAccept) {
+        StringBuilder out = new StringBuilder();
+        boolean accepted = AmountFormatter.appendTwoDecimals(out, value);
+        if (mustAccept) {
+            assertTrue(accepted, () -> "declined " + value);
+        }
+        assertEquals(accepted ? twoDecimals.format(value) : "", out.toString(), () -> "formatting " + value);
+    }
+
+    private void assertWhole(double value, boolean mustAccept) {
+        StringBuilder out = new StringBuilder();
+        boolean accepted = AmountFormatter.appendWhole(out, value);
+        if (mustAccept) {
+            assertTrue(accepted, () -> "declined " + value);
+        }
+        assertEquals(accepted ? whole.format(value) : "", out.toString(), () -> "formatting " + value);
+    }
+}